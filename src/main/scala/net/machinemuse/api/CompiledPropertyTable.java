@@ -0,0 +1,22 @@
+package net.machinemuse.api;
+
+/**
+ * Every modular property of one item, evaluated in a single pass over its
+ * active modules. Tables are stamped with the registry generation and the
+ * active mode they were compiled against so stale ones can be spotted cheaply.
+ */
+public class CompiledPropertyTable {
+    public final int generation;
+    public final String mode;
+    public final double[] values;
+
+    public CompiledPropertyTable(int generation, String mode, double[] values) {
+        this.generation = generation;
+        this.mode = mode;
+        this.values = values;
+    }
+
+    public boolean isCurrent(int generation, String mode) {
+        return this.generation == generation && (this.mode == null ? mode == null : this.mode.equals(mode));
+    }
+}
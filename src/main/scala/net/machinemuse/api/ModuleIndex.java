@@ -0,0 +1,38 @@
+package net.machinemuse.api;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.util.BitSet;
+
+/**
+ * Which registered modules are installed in, and online in, one modular item
+ * tag. Bits are module ordinals, so checks are a single bit test instead of a
+ * handful of NBT lookups.
+ */
+public class ModuleIndex {
+    public final int generation;
+    public final BitSet installed;
+    public final BitSet online;
+
+    public ModuleIndex(int generation, BitSet installed, BitSet online) {
+        this.generation = generation;
+        this.installed = installed;
+        this.online = online;
+    }
+
+    public static ModuleIndex build(NBTTagCompound itemTag, IPowerModule[] modules, int generation) {
+        BitSet installed = new BitSet(modules.length);
+        BitSet online = new BitSet(modules.length);
+        for (int i = 0; i < modules.length; i++) {
+            String name = modules[i].getDataName();
+            if (itemTag.hasKey(name)) {
+                installed.set(i);
+                NBTTagCompound moduleTag = itemTag.getCompoundTag(name);
+                if (!moduleTag.hasKey(ModuleManager.ONLINE) || moduleTag.getBoolean(ModuleManager.ONLINE)) {
+                    online.set(i);
+                }
+            }
+        }
+        return new ModuleIndex(generation, installed, online);
+    }
+}
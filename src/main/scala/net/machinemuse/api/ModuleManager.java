@@ -1,16 +1,25 @@
 package net.machinemuse.api;
 
+import com.google.common.collect.MapMaker;
 import net.machinemuse.api.moduletrigger.IBlockBreakingModule;
+import net.machinemuse.api.moduletrigger.IPlayerTickIntervalModule;
 import net.machinemuse.api.moduletrigger.IPlayerTickModule;
 import net.machinemuse.api.moduletrigger.IRightClickModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.numina.general.MuseLogger;
 import net.machinemuse.powersuits.item.ModeChangingModularItem;
+import net.machinemuse.powersuits.powermodule.PowerModuleBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,12 +28,42 @@ public class ModuleManager {
     public static final String ONLINE = "Active";
 
     protected static final Map<String, IPowerModule> moduleMap = new HashMap<String, IPowerModule>();
+    protected static final Map<String, Integer> moduleOrdinals = new HashMap<String, Integer>();
     protected static final List<IPowerModule> moduleList = new ArrayList<IPowerModule>();
     protected static final List<IPlayerTickModule> playerTickModules = new ArrayList<IPlayerTickModule>();
     protected static final List<IRightClickModule> rightClickModules = new ArrayList<IRightClickModule>();
     protected static final List<IToggleableModule> toggleableModules = new ArrayList<IToggleableModule>();
     protected static final List<IBlockBreakingModule> blockBreakingModules = new ArrayList<IBlockBreakingModule>();
 
+    /**
+     * Immutable dispatch arrays, indexed by module ordinal or grouped by trigger type and item. Built by freeze()
+     * once every mod has registered its modules; the registry rejects new modules after that.
+     */
+    protected static boolean frozen = false;
+    protected static IPowerModule[] moduleArray = new IPowerModule[0];
+    protected static int[] tickIntervals = new int[0];
+    protected static IPlayerTickModule[] playerTickModuleArray;
+    protected static IRightClickModule[] rightClickModuleArray;
+    protected static IToggleableModule[] toggleableModuleArray;
+    protected static IBlockBreakingModule[] blockBreakingModuleArray;
+    protected static Map<Item, IPowerModule[]> modulesByItem = Collections.emptyMap();
+    protected static Map<Item, IPlayerTickModule[]> tickModulesByItem = Collections.emptyMap();
+    protected static Map<Item, BitSet> tickModuleMasksByItem = Collections.emptyMap();
+    protected static final BitSet NO_MODULES = new BitSet();
+
+    /**
+     * Compiled property tables, keyed by the identity of each item's mmmpsmod tag. Weak keys so dropped or
+     * re-synced stacks fall out on their own; tag mutations go through the invalidate methods below.
+     */
+    protected static final Map<NBTTagCompound, CompiledPropertyTable> propertyTables = new MapMaker().weakKeys().makeMap();
+    protected static final Map<NBTTagCompound, ModuleIndex> moduleIndexes = new MapMaker().weakKeys().makeMap();
+    protected static volatile int propertyGeneration = 0;
+    /**
+     * Bumped by every invalidation, so callers caching values derived from several items can tell cheaply whether
+     * any of them might have changed.
+     */
+    protected static volatile int modificationCount = 0;
+
     public static List<IPowerModule> getAllModules() {
         return moduleList;
     }
@@ -38,9 +77,18 @@ public class ModuleManager {
     }
 
     public static void addModule(IPowerModule module) {
-
+        if (frozen) {
+            MuseLogger.logError("Module " + module.getDataName() + " was registered after the module registry was frozen; ignoring it. Register modules before postInit finishes.");
+            return;
+        }
         moduleMap.put(module.getDataName(), module);
+        moduleOrdinals.put(module.getDataName(), moduleList.size());
         moduleList.add(module);
+        moduleArray = moduleList.toArray(new IPowerModule[moduleList.size()]);
+        int[] intervals = Arrays.copyOf(tickIntervals, moduleArray.length);
+        intervals[moduleArray.length - 1] = module instanceof IPlayerTickIntervalModule
+                ? Math.max(1, ((IPlayerTickIntervalModule) module).getTickInterval()) : 1;
+        tickIntervals = intervals;
         if (module instanceof IPlayerTickModule) {
             playerTickModules.add((IPlayerTickModule) module);
         }
@@ -53,9 +101,176 @@ public class ModuleManager {
         if (module instanceof IBlockBreakingModule) {
             blockBreakingModules.add((IBlockBreakingModule) module);
         }
+        for (String propertyName : module.getPropertyModifiers().keySet()) {
+            PropertyKey.get(propertyName);
+        }
+        invalidatePropertyCache();
+    }
+
+    /**
+     * Locks the registry and builds the per-trigger and per-item dispatch arrays. Called at the end of postInit.
+     */
+    public static synchronized void freeze() {
+        if (frozen) {
+            return;
+        }
+        playerTickModuleArray = playerTickModules.toArray(new IPlayerTickModule[playerTickModules.size()]);
+        rightClickModuleArray = rightClickModules.toArray(new IRightClickModule[rightClickModules.size()]);
+        toggleableModuleArray = toggleableModules.toArray(new IToggleableModule[toggleableModules.size()]);
+        blockBreakingModuleArray = blockBreakingModules.toArray(new IBlockBreakingModule[blockBreakingModules.size()]);
+
+        Map<Item, IPowerModule[]> byItem = new IdentityHashMap<Item, IPowerModule[]>();
+        Map<Item, IPlayerTickModule[]> tickByItem = new IdentityHashMap<Item, IPlayerTickModule[]>();
+        Map<Item, BitSet> tickMaskByItem = new IdentityHashMap<Item, BitSet>();
+        for (Object o : Item.itemRegistry) {
+            if (o instanceof IModularItem) {
+                Item item = (Item) o;
+                ItemStack probe = new ItemStack(item);
+                List<IPowerModule> valid = new ArrayList<IPowerModule>();
+                List<IPlayerTickModule> validTick = new ArrayList<IPlayerTickModule>();
+                BitSet tickMask = new BitSet(moduleArray.length);
+                for (int ordinal = 0; ordinal < moduleArray.length; ordinal++) {
+                    IPowerModule module = moduleArray[ordinal];
+                    if (module.isValidForItem(probe)) {
+                        valid.add(module);
+                        if (module instanceof IPlayerTickModule) {
+                            validTick.add((IPlayerTickModule) module);
+                            tickMask.set(ordinal);
+                        }
+                    }
+                }
+                byItem.put(item, valid.toArray(new IPowerModule[valid.size()]));
+                tickByItem.put(item, validTick.toArray(new IPlayerTickModule[validTick.size()]));
+                tickMaskByItem.put(item, tickMask);
+            }
+        }
+        modulesByItem = byItem;
+        tickModulesByItem = tickByItem;
+        tickModuleMasksByItem = tickMaskByItem;
+        frozen = true;
+        invalidatePropertyCache();
+    }
+
+    public static boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return the module's dense ordinal, or -1 if it isn't registered
+     */
+    public static int getModuleOrdinal(String moduleName) {
+        Integer ordinal = moduleOrdinals.get(moduleName);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public static IPowerModule getModule(int ordinal) {
+        return moduleArray[ordinal];
+    }
+
+    /**
+     * @return how many ticks apart the player tick module with this ordinal wants to run
+     */
+    public static int getTickInterval(int ordinal) {
+        return tickIntervals[ordinal];
+    }
+
+    public static IPowerModule[] getModuleArray() {
+        return moduleArray;
+    }
+
+    public static IPlayerTickModule[] getPlayerTickModuleArray() {
+        return frozen ? playerTickModuleArray : playerTickModules.toArray(new IPlayerTickModule[playerTickModules.size()]);
+    }
+
+    public static IRightClickModule[] getRightClickModuleArray() {
+        return frozen ? rightClickModuleArray : rightClickModules.toArray(new IRightClickModule[rightClickModules.size()]);
+    }
+
+    public static IToggleableModule[] getToggleableModuleArray() {
+        return frozen ? toggleableModuleArray : toggleableModules.toArray(new IToggleableModule[toggleableModules.size()]);
+    }
+
+    public static IBlockBreakingModule[] getBlockBreakingModuleArray() {
+        return frozen ? blockBreakingModuleArray : blockBreakingModules.toArray(new IBlockBreakingModule[blockBreakingModules.size()]);
+    }
+
+    /**
+     * Gets every registered module that can be installed in the given item. Only available once the registry is
+     * frozen; returns an empty array for items that aren't modular.
+     */
+    public static IPowerModule[] getModulesForItem(Item item) {
+        IPowerModule[] modules = modulesByItem.get(item);
+        return modules == null ? new IPowerModule[0] : modules;
+    }
+
+    /**
+     * Gets the player tick modules that can be installed in the given item. Only available once the registry is
+     * frozen.
+     */
+    public static IPlayerTickModule[] getPlayerTickModulesForItem(Item item) {
+        IPlayerTickModule[] modules = tickModulesByItem.get(item);
+        return modules == null ? new IPlayerTickModule[0] : modules;
+    }
+
+    /**
+     * Same as getPlayerTickModulesForItem, as a mask of module ordinals to intersect with a ModuleIndex. Do not
+     * modify the returned set.
+     */
+    public static BitSet getPlayerTickModuleMask(Item item) {
+        BitSet mask = tickModuleMasksByItem.get(item);
+        return mask == null ? NO_MODULES : mask;
     }
 
     public static double computeModularProperty(ItemStack stack, String propertyName) {
+        PropertyKey key = PropertyKey.lookup(propertyName);
+        if (key == null) {
+            // Not declared by any registered module, so only a custom applyPropertyModifiers could touch it
+            return stack == null || !(stack.getItem() instanceof IModularItem) ? 0 : computeModularPropertyUncached(stack, propertyName);
+        }
+        return computeModularProperty(stack, key);
+    }
+
+    public static double computeModularProperty(ItemStack stack, PropertyKey key) {
+        if (stack == null || !(stack.getItem() instanceof IModularItem)) {
+            return 0;
+        }
+        double[] values = getPropertyTable(stack).values;
+        return key.index < values.length ? values[key.index] : computeModularPropertyUncached(stack, key.name);
+    }
+
+    /**
+     * Looks up several properties of one item against a single property table fetch.
+     *
+     * @param out  filled so that out[i] is the value of keys[i]; must be at least as long as keys
+     * @return out, for convenience
+     */
+    public static double[] computeModularProperties(ItemStack stack, double[] out, PropertyKey... keys) {
+        if (stack == null || !(stack.getItem() instanceof IModularItem)) {
+            Arrays.fill(out, 0, keys.length, 0);
+            return out;
+        }
+        double[] values = getPropertyTable(stack).values;
+        for (int i = 0; i < keys.length; i++) {
+            PropertyKey key = keys[i];
+            out[i] = key.index < values.length ? values[key.index] : computeModularPropertyUncached(stack, key.name);
+        }
+        return out;
+    }
+
+    /**
+     * A per-thread out array for computeModularProperties. Call sites keep one next to their keys and fetch it on each
+     * call; a plain field won't do, since the client and integrated server threads share module instances.
+     */
+    public static ThreadLocal<double[]> propertyScratch(final int size) {
+        return new ThreadLocal<double[]>() {
+            @Override
+            protected double[] initialValue() {
+                return new double[size];
+            }
+        };
+    }
+
+    public static double computeModularPropertyUncached(ItemStack stack, String propertyName) {
         double propertyValue = 0;
         NBTTagCompound itemTag = MuseItemTag.getMuseItemTag(stack);
         for (IPowerModule module : moduleList) {
@@ -66,6 +281,111 @@ public class ModuleManager {
         return propertyValue;
     }
 
+    /**
+     * Gets the compiled property table for a modular item, compiling it if the cached one is missing or stale.
+     */
+    public static CompiledPropertyTable getPropertyTable(ItemStack stack) {
+        NBTTagCompound itemTag = MuseItemTag.getMuseItemTag(stack);
+        int generation = propertyGeneration;
+        String mode = getRawMode(stack);
+        CompiledPropertyTable table = propertyTables.get(itemTag);
+        if (table == null || !table.isCurrent(generation, mode)) {
+            table = compilePropertyTable(stack, itemTag, generation, mode);
+            propertyTables.put(itemTag, table);
+        }
+        return table;
+    }
+
+    protected static CompiledPropertyTable compilePropertyTable(ItemStack stack, NBTTagCompound itemTag, int generation, String mode) {
+        double[] values = new double[PropertyKey.count()];
+        ModuleIndex index = getModuleIndex(itemTag);
+        IPowerModule[] modules = moduleArray;
+        for (int ordinal = index.installed.nextSetBit(0); ordinal >= 0; ordinal = index.installed.nextSetBit(ordinal + 1)) {
+            IPowerModule module = modules[ordinal];
+            if (itemHasActiveModule(stack, ordinal, index)) {
+                if (module instanceof PowerModuleBase) {
+                    ((PowerModuleBase) module).applyPropertyModifiers(itemTag, values);
+                } else {
+                    // Addon modules may change properties they don't declare, so they see every one, as they would
+                    // through computeModularPropertyUncached
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = module.applyPropertyModifiers(itemTag, PropertyKey.byIndex(i).name, values[i]);
+                    }
+                }
+            }
+        }
+        return new CompiledPropertyTable(generation, mode, values);
+    }
+
+    /**
+     * Mode-changing items only count the selected right-click module, so their tables depend on the mode too.
+     */
+    protected static String getRawMode(ItemStack stack) {
+        if (stack.getItem() instanceof ModeChangingModularItem && stack.hasTagCompound()) {
+            return stack.getTagCompound().getString("mode");
+        }
+        return null;
+    }
+
+    /**
+     * Drops the compiled properties for one item tag. Call after changing its modules, toggles or tweaks.
+     */
+    public static void invalidatePropertyCache(NBTTagCompound itemTag) {
+        if (itemTag != null) {
+            propertyTables.remove(itemTag);
+            modificationCount++;
+        }
+    }
+
+    public static void invalidatePropertyCache(ItemStack stack) {
+        if (stack != null && stack.hasTagCompound()) {
+            invalidatePropertyCache(MuseItemTag.getMuseItemTag(stack));
+        }
+    }
+
+    /**
+     * Drops every compiled table, e.g. after modules are registered or their modifier values are reconfigured.
+     */
+    public static void invalidatePropertyCache() {
+        propertyGeneration++;
+        modificationCount++;
+        propertyTables.clear();
+        moduleIndexes.clear();
+    }
+
+    public static int getPropertyGeneration() {
+        return propertyGeneration;
+    }
+
+    public static int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Gets the installed/online index for a modular item tag, building it from the NBT if needed.
+     */
+    public static ModuleIndex getModuleIndex(NBTTagCompound itemTag) {
+        int generation = propertyGeneration;
+        ModuleIndex index = moduleIndexes.get(itemTag);
+        if (index == null || index.generation != generation) {
+            index = ModuleIndex.build(itemTag, moduleArray, generation);
+            moduleIndexes.put(itemTag, index);
+        }
+        return index;
+    }
+
+    /**
+     * Drops the module index and compiled properties for one item tag. Call after installing, removing or toggling
+     * a module.
+     */
+    public static void invalidateModuleIndex(NBTTagCompound itemTag) {
+        if (itemTag != null) {
+            moduleIndexes.remove(itemTag);
+            propertyTables.remove(itemTag);
+            modificationCount++;
+        }
+    }
+
     public static List<IRightClickModule> getRightClickModules() {
         return rightClickModules;
     }
@@ -80,7 +400,7 @@ public class ModuleManager {
 
     public static List<IPowerModule> getValidModulesForItem(EntityPlayer player, ItemStack stack) {
         List<IPowerModule> validModules = new ArrayList();
-        for (IPowerModule module : getAllModules()) {
+        for (IPowerModule module : frozen ? getModulesForItem(stack.getItem()) : moduleArray) {
             if (module.isValidForItem(stack)) {
                 validModules.add(module);
             }
@@ -93,6 +413,10 @@ public class ModuleManager {
     }
 
     public static boolean isModuleOnline(NBTTagCompound itemTag, String moduleName) {
+        Integer ordinal = moduleOrdinals.get(moduleName);
+        if (ordinal != null) {
+            return getModuleIndex(itemTag).online.get(ordinal);
+        }
         if (tagHasModule(itemTag, moduleName) && !itemTag.getCompoundTag(moduleName).hasKey(ONLINE)) {
             return true;
         } else if (tagHasModule(itemTag, moduleName) && itemTag.getCompoundTag(moduleName).getBoolean(ONLINE)) {
@@ -105,15 +429,21 @@ public class ModuleManager {
         if (tagHasModule(itemTag, name)) {
             NBTTagCompound moduleTag = itemTag.getCompoundTag(name);
             moduleTag.setBoolean(ONLINE, toggleval);
+            invalidateModuleIndex(itemTag);
         }
     }
 
     public static boolean itemHasModule(ItemStack stack, String moduleName) {
+        Integer ordinal = moduleOrdinals.get(moduleName);
+        if (ordinal != null) {
+            return getModuleIndex(MuseItemTag.getMuseItemTag(stack)).installed.get(ordinal);
+        }
         return tagHasModule(MuseItemTag.getMuseItemTag(stack), moduleName);
     }
 
     public static void tagAddModule(NBTTagCompound tag, IPowerModule module) {
         tag.setTag(module.getDataName(), module.getNewTag());
+        invalidateModuleIndex(tag);
     }
 
     public static void itemAddModule(ItemStack stack, IPowerModule moduleType) {
@@ -123,6 +453,7 @@ public class ModuleManager {
     public static boolean removeModule(NBTTagCompound tag, String moduleName) {
         if (tag.hasKey(moduleName)) {
             tag.removeTag(moduleName);
+            invalidateModuleIndex(tag);
             return true;
         } else {
             return false;
@@ -134,8 +465,22 @@ public class ModuleManager {
     }
 
     public static boolean itemHasActiveModule(ItemStack itemStack, String moduleName) {
-        IPowerModule module = getModule(moduleName);
-        if (module == null || itemStack == null || !module.isAllowed() || !(itemStack.getItem() instanceof IModularItem)) {
+        Integer ordinal = moduleOrdinals.get(moduleName);
+        if (ordinal == null) {
+            return false;
+        }
+        if (itemStack == null || !(itemStack.getItem() instanceof IModularItem)) {
+            return false;
+        }
+        return itemHasActiveModule(itemStack, ordinal, getModuleIndex(MuseItemTag.getMuseItemTag(itemStack)));
+    }
+
+    /**
+     * Ordinal form of itemHasActiveModule for dispatch loops that already hold the item's ModuleIndex.
+     */
+    public static boolean itemHasActiveModule(ItemStack itemStack, int ordinal, ModuleIndex index) {
+        IPowerModule module = moduleArray[ordinal];
+        if (!module.isAllowed()) {
             // playerEntity.sendChatToPlayer("Server has disallowed this module. Sorry!");
             return false;
         }
@@ -144,9 +489,9 @@ public class ModuleManager {
             // MuseItemUtils.getActiveMode(itemStack));
             ModeChangingModularItem item = (ModeChangingModularItem) itemStack.getItem();
 
-            return moduleName.equals(item.getActiveMode(itemStack));
+            return module.getDataName().equals(item.getActiveMode(itemStack));
         } else {
-            return isModuleOnline(MuseItemTag.getMuseItemTag(itemStack), moduleName);
+            return index.online.get(ordinal);
         }
     }
 }
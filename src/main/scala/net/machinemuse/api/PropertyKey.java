@@ -0,0 +1,66 @@
+package net.machinemuse.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A property name interned to a dense index, so compiled property tables can
+ * be plain arrays. Keys are created when modules register their modifiers and
+ * are never removed; the same name always maps to the same key.
+ */
+public final class PropertyKey {
+    private static final Map<String, PropertyKey> keysByName = new ConcurrentHashMap<String, PropertyKey>();
+    private static final List<PropertyKey> keysByIndex = new ArrayList<PropertyKey>();
+
+    public final String name;
+    public final int index;
+
+    private PropertyKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Gets the key for a property name, interning it if it hasn't been seen before.
+     */
+    public static PropertyKey get(String name) {
+        PropertyKey key = keysByName.get(name);
+        if (key == null) {
+            synchronized (keysByIndex) {
+                key = keysByName.get(name);
+                if (key == null) {
+                    key = new PropertyKey(name, keysByIndex.size());
+                    keysByIndex.add(key);
+                    keysByName.put(name, key);
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Gets the key for a property name without interning it.
+     *
+     * @return the key, or null if no module has registered this property
+     */
+    public static PropertyKey lookup(String name) {
+        return keysByName.get(name);
+    }
+
+    public static PropertyKey byIndex(int index) {
+        synchronized (keysByIndex) {
+            return keysByIndex.get(index);
+        }
+    }
+
+    public static int count() {
+        return keysByName.size();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,26 +1,67 @@
 package net.machinemuse.api.electricity
 
 import cofh.api.energy.IEnergyContainerItem
+import com.google.common.collect.MapMaker
 import ic2.api.item.ElectricItem
 import ic2.api.item.IElectricItem
 import net.machinemuse.powersuits.common.ModCompatability
-import net.minecraft.item.ItemStack
+import net.minecraft.item.{Item, ItemStack}
 
 object ElectricAdapter {
+  // Which other mods' energy APIs to look for. Asked once, the first time a stack is wrapped, by which point
+  // FML knows every mod that's going to load.
+  protected lazy val cofhLoaded: Boolean = ModCompatability.isCoFHCoreLoaded
+  protected lazy val ic2Loaded: Boolean = ModCompatability.isIndustrialCraftLoaded
+
+  /**
+   * What kind of adapter each item gets, worked out the first time it's seen. Items that can't hold energy map to
+   * NotElectric, so an inventory full of blocks costs one lookup per slot.
+   */
+  protected val factories: java.util.Map[Item, AdapterFactory] = new MapMaker().weakKeys().makeMap[Item, AdapterFactory]()
+
   def wrap(stack: ItemStack): ElectricAdapter = {
     if (stack == null) return null
     val i = stack.getItem
+    if (i == null) return null
+    var factory = factories.get(i)
+    if (factory == null) {
+      factory = factoryFor(i)
+      factories.put(i, factory)
+    }
+    factory(stack)
+  }
+
+  protected def factoryFor(i: Item): AdapterFactory = {
     if (i.isInstanceOf[MuseElectricItem]) {
-      new MuseElectricAdapter(stack)
-    } else if (ModCompatability.isCoFHCoreLoaded && i.isInstanceOf[IEnergyContainerItem]) {
-      new TEElectricAdapter(stack)
-    } else if (ModCompatability.isIndustrialCraftLoaded && i.isInstanceOf[IElectricItem]) {
-      new IC2ElectricAdapter(stack)
+      MuseAdapterFactory
+    } else if (cofhLoaded && i.isInstanceOf[IEnergyContainerItem]) {
+      TEAdapterFactory
+    } else if (ic2Loaded && i.isInstanceOf[IElectricItem]) {
+      IC2AdapterFactory
     } else {
-      null
+      NotElectric
     }
   }
 
+  abstract class AdapterFactory {
+    def apply(stack: ItemStack): ElectricAdapter
+  }
+
+  object MuseAdapterFactory extends AdapterFactory {
+    def apply(stack: ItemStack) = new MuseElectricAdapter(stack)
+  }
+
+  object TEAdapterFactory extends AdapterFactory {
+    def apply(stack: ItemStack) = new TEElectricAdapter(stack)
+  }
+
+  object IC2AdapterFactory extends AdapterFactory {
+    def apply(stack: ItemStack) = new IC2ElectricAdapter(stack)
+  }
+
+  object NotElectric extends AdapterFactory {
+    def apply(stack: ItemStack): ElectricAdapter = null
+  }
 }
 
 abstract class ElectricAdapter {
@@ -9,6 +9,13 @@ import net.machinemuse.api.ModuleManager
  * Created: 4:51 AM, 4/28/13
  */
 object ElectricConversions {
+  // MPS items store their energy as a whole number of millijoules, so repeated small drains don't drift
+  final val MILLIJOULES_PER_JOULE: Long = 1000
+
+  def joulesToMillijoules(joules: Double): Long = Math.round(joules * MILLIJOULES_PER_JOULE)
+
+  def millijoulesToJoules(millijoules: Long): Double = millijoules.toDouble / MILLIJOULES_PER_JOULE
+
   // IC2
   final val IC2_TIER: String = "IC2 Tier"
 
@@ -23,6 +30,20 @@ object ElectricConversions {
 
   def museEnergyFromRF(rf: Int): Double = rf * ModCompatability.getRFRatio
 
+  def millijoulesFromRF(rf: Long): Long = Math.round(rf * ModCompatability.getRFRatio * MILLIJOULES_PER_JOULE)
+
+  /**
+   * The most RF that the given energy fully pays for. Converting the result back with millijoulesFromRF never gives
+   * more than you started with, so RF can go in and out of an item without creating or losing energy.
+   */
+  def millijoulesToRF(millijoules: Long): Int = {
+    if (millijoules <= 0) return 0
+    var rf = (millijoules / (ModCompatability.getRFRatio * MILLIJOULES_PER_JOULE)).toLong
+    if (millijoulesFromRF(rf) > millijoules) rf -= 1
+    else if (millijoulesFromRF(rf + 1) <= millijoules) rf += 1
+    Math.min(rf, Int.MaxValue).toInt
+  }
+
   // BC
   def museEnergyToMJ(museEnergy: Double): Double = museEnergy / ModCompatability.getBCRatio
 
@@ -25,8 +25,36 @@ with IEnergyContainerItem {
    * @param stack ItemStack to set
    * @return Current energy level
    */
-  def getCurrentEnergy(stack: ItemStack): Double = MuseItemUtils.getDoubleOrZero(stack, ElectricItemUtils.CURRENT_ENERGY)
+  def getCurrentEnergy(stack: ItemStack): Double = millijoulesToJoules(getStoredMillijoules(stack))
 
+  /**
+   * Energy is stored as a long count of millijoules. Items from before that still have the old double tag; it's
+   * read here and replaced the first time the item's energy is set.
+   */
+  def getStoredMillijoules(stack: ItemStack): Long = {
+    val tag = MuseItemUtils.getMuseItemTag(stack)
+    if (tag == null) {
+      0
+    } else if (tag.hasKey(ElectricItemUtils.STORED_ENERGY)) {
+      tag.getLong(ElectricItemUtils.STORED_ENERGY)
+    } else if (tag.hasKey(ElectricItemUtils.CURRENT_ENERGY)) {
+      joulesToMillijoules(tag.getDouble(ElectricItemUtils.CURRENT_ENERGY))
+    } else {
+      0
+    }
+  }
+
+  def setStoredMillijoules(stack: ItemStack, millijoules: Long) {
+    val tag = MuseItemUtils.getMuseItemTag(stack)
+    if (tag != null) {
+      tag.removeTag(ElectricItemUtils.CURRENT_ENERGY)
+      if (millijoules > 0) {
+        tag.setLong(ElectricItemUtils.STORED_ENERGY, millijoules)
+      } else {
+        tag.removeTag(ElectricItemUtils.STORED_ENERGY)
+      }
+    }
+  }
 
   /**
    * Call to set the energy of an item
@@ -34,7 +62,9 @@ with IEnergyContainerItem {
    * @param stack ItemStack to set
    * @return Maximum energy level
    */
-  def getMaxEnergy(stack: ItemStack): Double = ModuleManager.computeModularProperty(stack, ElectricItemUtils.MAXIMUM_ENERGY)
+  def getMaxEnergy(stack: ItemStack): Double = ModuleManager.computeModularProperty(stack, ElectricItemUtils.MAXIMUM_ENERGY_KEY)
+
+  def getMaxMillijoules(stack: ItemStack): Long = joulesToMillijoules(getMaxEnergy(stack))
 
   /**
    * Call to set the energy of an item
@@ -43,7 +73,13 @@ with IEnergyContainerItem {
    * @param energy Level to set it to
    */
   def setCurrentEnergy(stack: ItemStack, energy: Double) {
-    MuseItemUtils.setDoubleOrRemove(stack, ElectricItemUtils.CURRENT_ENERGY, Math.min(energy, getMaxEnergy(stack)))
+    val millijoules = joulesToMillijoules(energy)
+    // Only a rise can go past capacity, so drains don't need the max at all
+    if (millijoules > getStoredMillijoules(stack)) {
+      setStoredMillijoules(stack, Math.min(millijoules, getMaxMillijoules(stack)))
+    } else {
+      setStoredMillijoules(stack, millijoules)
+    }
   }
 
   /**
@@ -54,14 +90,10 @@ with IEnergyContainerItem {
    * @return Amount of energy successfully drained
    */
   def drainEnergyFrom(stack: ItemStack, requested: Double): Double = {
-    val available = getCurrentEnergy(stack)
-    if (available > requested) {
-      setCurrentEnergy(stack, available - requested)
-      requested
-    } else {
-      setCurrentEnergy(stack, 0)
-      available
-    }
+    val available = getStoredMillijoules(stack)
+    val taken = Math.max(0, Math.min(available, joulesToMillijoules(requested)))
+    setStoredMillijoules(stack, available - taken)
+    millijoulesToJoules(taken)
   }
 
   /**
@@ -72,41 +104,34 @@ with IEnergyContainerItem {
    * @return Amount of energy added
    */
   def giveEnergyTo(stack: ItemStack, provided: Double): Double = {
-    val available = getCurrentEnergy(stack)
-    val max = getMaxEnergy(stack)
-    if (available + provided < max) {
-      setCurrentEnergy(stack, available + provided)
-      provided
-    } else {
-      setCurrentEnergy(stack, max)
-      max - available
-    }
+    val available = getStoredMillijoules(stack)
+    val stored = Math.max(0, Math.min(getMaxMillijoules(stack) - available, joulesToMillijoules(provided)))
+    setStoredMillijoules(stack, available + stored)
+    millijoulesToJoules(stored)
   }
 
   // TE
   def receiveEnergy(stack: ItemStack, energy: Int, simulate: Boolean): Int = {
-    val current: Double = getCurrentEnergy(stack)
-    val receivedME: Double = museEnergyFromRF(energy)
-    val eatenME: Double = giveEnergyTo(stack, receivedME)
-    if (simulate) {
-      setCurrentEnergy(stack, current)
+    val current = getStoredMillijoules(stack)
+    val accepted = Math.min(energy, millijoulesToRF(getMaxMillijoules(stack) - current))
+    if (!simulate && accepted > 0) {
+      setStoredMillijoules(stack, current + millijoulesFromRF(accepted))
     }
-    museEnergyToRF(eatenME)
+    accepted
   }
 
   def extractEnergy(stack: ItemStack, energy: Int, simulate: Boolean): Int = {
-    val current: Double = getCurrentEnergy(stack)
-    val requesteddME: Double = museEnergyFromRF(energy)
-    val takenME: Double = drainEnergyFrom(stack, requesteddME)
-    if (simulate) {
-      setCurrentEnergy(stack, current)
+    val current = getStoredMillijoules(stack)
+    val extracted = Math.min(energy, millijoulesToRF(current))
+    if (!simulate && extracted > 0) {
+      setStoredMillijoules(stack, current - millijoulesFromRF(extracted))
     }
-    museEnergyToRF(takenME)
+    extracted
   }
 
-  def getEnergyStored(theItem: ItemStack) = museEnergyToRF(getCurrentEnergy(theItem)).toInt
+  def getEnergyStored(theItem: ItemStack) = millijoulesToRF(getStoredMillijoules(theItem))
 
-  def getMaxEnergyStored(theItem: ItemStack) = museEnergyToRF(getMaxEnergy(theItem)).toInt
+  def getMaxEnergyStored(theItem: ItemStack) = millijoulesToRF(getMaxMillijoules(theItem))
 
   override def getMaxDamage(itemStack: ItemStack) = 0
 }
@@ -0,0 +1,12 @@
+package net.machinemuse.api.moduletrigger;
+
+import net.minecraft.item.ItemStack;
+
+/**
+ * A player tick module that takes the shared PlayerTickContext instead of rescanning the player's inventory.
+ * PlayerUpdateHandler calls this overload in place of onPlayerTickActive(EntityPlayer, ItemStack). The built-in
+ * modules extend PlayerTickContextModule, which routes that one through PlayerTickContext.build for other callers.
+ */
+public interface IPlayerTickContextModule extends IPlayerTickModule {
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item);
+}
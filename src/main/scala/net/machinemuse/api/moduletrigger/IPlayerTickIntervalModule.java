@@ -0,0 +1,13 @@
+package net.machinemuse.api.moduletrigger;
+
+/**
+ * A player tick module whose work only needs doing every few ticks, like topping up a long potion effect.
+ * PlayerUpdateHandler still counts it as active on the ticks in between, so onPlayerTickInactive is not called on
+ * them; onPlayerTickActive just runs once per interval, on a slot staggered per player.
+ */
+public interface IPlayerTickIntervalModule extends IPlayerTickModule {
+    /**
+     * @return how many ticks apart onPlayerTickActive should be called; 1 means every tick
+     */
+    public int getTickInterval();
+}
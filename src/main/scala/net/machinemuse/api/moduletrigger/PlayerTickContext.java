@@ -0,0 +1,131 @@
+package net.machinemuse.api.moduletrigger;
+
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.powersuits.control.PlayerInputMap;
+import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.utils.EnergyPool;
+import net.machinemuse.utils.HeatPool;
+import net.machinemuse.utils.MuseCommonStrings;
+import net.machinemuse.utils.MuseHeatUtils;
+import net.machinemuse.utils.MuseItemUtils;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+
+import java.util.List;
+
+/**
+ * What the player tick modules need to know about one player, gathered in a single pass over their inventory at
+ * the start of the tick and handed to every IPlayerTickContextModule in turn.
+ * <p>
+ * Energy and heat go through the player's EnergyPool and HeatPool, which ElectricItemUtils and MuseHeatUtils share,
+ * so modules can use either route and the totals stay right for the modules after them.
+ */
+public class PlayerTickContext {
+    public final EntityPlayer player;
+    /**
+     * Modular items in the armor slots and the player's hand
+     */
+    public final List<ItemStack> equipped;
+    /**
+     * Every modular item in the player's inventory, which is what heat is spread across
+     */
+    public final List<ItemStack> modularItems;
+    /**
+     * The player's chargeable items, shared with ElectricItemUtils
+     */
+    public final EnergyPool energyPool;
+    /**
+     * The player's heat totals, shared with MuseHeatUtils
+     */
+    public final HeatPool heatPool;
+    protected final int modificationCount;
+    public final PlayerInputMap inputMap;
+    public final double weight;
+    public final double maxHeat;
+
+    protected PlayerTickContext(EntityPlayer player, List<ItemStack> equipped, int modificationCount, double weight) {
+        this.player = player;
+        this.equipped = equipped;
+        this.energyPool = ElectricItemUtils.getEnergyPool(player);
+        this.heatPool = MuseHeatUtils.getHeatPool(player);
+        this.modularItems = heatPool.getItems();
+        this.modificationCount = modificationCount;
+        this.inputMap = PlayerInputMap.getInputMapFor(player);
+        this.weight = weight;
+        this.maxHeat = heatPool.getMaxHeat();
+    }
+
+    public static PlayerTickContext build(EntityPlayer player) {
+        return build(player, MuseItemUtils.modularItemsEquipped(player));
+    }
+
+    public static PlayerTickContext build(EntityPlayer player, List<ItemStack> equipped) {
+        return build(player, equipped, null, true);
+    }
+
+    /**
+     * @param previous          this player's context from last tick, or null
+     * @param equipmentChanged  whether anything in the armor slots or hand is different from last tick
+     */
+    public static PlayerTickContext build(EntityPlayer player, List<ItemStack> equipped, PlayerTickContext previous, boolean equipmentChanged) {
+        int modificationCount = ModuleManager.getModificationCount();
+        if (previous != null && !equipmentChanged && previous.modificationCount == modificationCount) {
+            // Same gear with the same modules as last tick, so the weight can't have moved
+            return new PlayerTickContext(player, equipped, modificationCount, previous.weight);
+        }
+        double weight = 0;
+        for (ItemStack stack : equipped) {
+            weight += ModuleManager.computeModularProperty(stack, MuseCommonStrings.WEIGHT_KEY);
+        }
+        return new PlayerTickContext(player, equipped, modificationCount, weight);
+    }
+
+    public double getEnergy() {
+        return energyPool.getEnergy();
+    }
+
+    public double getMaxEnergy() {
+        return energyPool.getMaxEnergy();
+    }
+
+    public double getHeat() {
+        return heatPool.getHeat();
+    }
+
+    /**
+     * @return how much energy was actually drained
+     */
+    public double drainEnergy(double amount) {
+        return energyPool.drain(amount);
+    }
+
+    /**
+     * Drains the amount only if the player has more than that available.
+     *
+     * @return whether it was drained
+     */
+    public boolean tryDrain(double amount) {
+        return energyPool.tryDrain(amount);
+    }
+
+    /**
+     * @return how much energy was actually stored
+     */
+    public double giveEnergy(double amount) {
+        return energyPool.give(amount);
+    }
+
+    /**
+     * @return how much heat was actually added
+     */
+    public double heatPlayer(double degrees) {
+        return heatPool.heat(degrees);
+    }
+
+    /**
+     * @return how much heat was actually removed
+     */
+    public double coolPlayer(double degrees) {
+        return heatPool.cool(degrees);
+    }
+}
@@ -52,8 +52,12 @@ public class GuiTinkerTable extends MuseGui {
                 Colour.LIGHTBLUE.withAlpha(0.8F), Colour.DARKBLUE.withAlpha(0.8F), player);
         frames.add(itemSelectFrame);
 
-        ItemInfoFrame statsFrame = new ItemInfoFrame(player, new MusePoint2D(absX(0f), absY(-0.9f)), new MusePoint2D(absX(0.9f), absY(-0.05f)),
+        ItemInfoFrame infoFrame = new ItemInfoFrame(player, new MusePoint2D(absX(0f), absY(-0.9f)), new MusePoint2D(absX(0.9f), absY(-0.42f)),
                 Colour.LIGHTBLUE.withAlpha(0.8), Colour.DARKBLUE.withAlpha(0.8), itemSelectFrame);
+        frames.add(infoFrame);
+
+        StatsFrame statsFrame = new StatsFrame(player, new MusePoint2D(absX(0f), absY(-0.38f)), new MusePoint2D(absX(0.9f), absY(-0.05f)),
+                Colour.LIGHTBLUE.withAlpha(0.8), Colour.DARKBLUE.withAlpha(0.8));
         frames.add(statsFrame);
 
         ModuleSelectionFrame moduleSelectFrame = new ModuleSelectionFrame(new MusePoint2D(absX(-0.75F), absY(-0.95f)), new MusePoint2D(absX(-0.05F),
@@ -3,13 +3,14 @@ package net.machinemuse.general.gui.frame;
 import net.machinemuse.api.IPowerModule;
 import net.machinemuse.api.IPropertyModifier;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.general.gui.clickable.ClickableItem;
 import net.machinemuse.general.gui.clickable.ClickableTinkerSlider;
 import net.machinemuse.numina.geometry.Colour;
 import net.machinemuse.numina.geometry.MusePoint2D;
 import net.machinemuse.numina.network.MusePacket;
 import net.machinemuse.numina.network.PacketSender;
-import net.machinemuse.powersuits.network.packets.MusePacketTweakRequest;
+import net.machinemuse.powersuits.common.Config;
+import net.machinemuse.powersuits.network.packets.MusePacketModuleOrdinals;
+import net.machinemuse.powersuits.network.packets.MusePacketTweakBatch;
 import net.machinemuse.powersuits.powermodule.PowerModule;
 import net.machinemuse.powersuits.powermodule.PropertyModifierLinearAdditive;
 import net.machinemuse.utils.MuseItemUtils;
@@ -30,6 +31,11 @@ public class ModuleTweakFrame extends ScrollableFrame {
     protected Map<String, Double> propertyStrings;
     protected ClickableTinkerSlider selectedSlider;
     protected EntityClientPlayerMP player;
+    /**
+     * Tweaks changed since the last send, latest value only, keyed by MusePacketTweakBatch.key
+     */
+    protected Map<Long, Double> pendingTweaks = new LinkedHashMap<Long, Double>();
+    protected long lastTweakSent;
 
     public ModuleTweakFrame(
             EntityClientPlayerMP player,
@@ -60,9 +66,44 @@ public class ModuleTweakFrame extends ScrollableFrame {
             propertyStrings = null;
         }
         if (selectedSlider != null) {
+            double oldValue = selectedSlider.value();
             selectedSlider.moveSlider(mousex, mousey);
+            if (itemTarget.getSelectedItem() != null) {
+                ModuleManager.invalidatePropertyCache(itemTarget.getSelectedItem().getItem());
+            }
+            if (selectedSlider.value() != oldValue) {
+                queueTweak();
+            }
+            if (System.currentTimeMillis() - lastTweakSent >= Config.tweakSendInterval()) {
+                sendTweaks();
+            }
+        }
+
+    }
+
+    /**
+     * Records the selected slider's value to be sent with the next batch, replacing any value not yet sent for it.
+     */
+    protected void queueTweak() {
+        if (selectedSlider != null && itemTarget.getSelectedItem() != null && moduleTarget.getSelectedModule() != null) {
+            String moduleName = moduleTarget.getSelectedModule().getModule().getDataName();
+            // The server's ordinal, which needn't match ours
+            int moduleOrdinal = MusePacketModuleOrdinals.getServerOrdinal(moduleName);
+            int tweakOrdinal = MusePacketTweakBatch.getTweakOrdinal(moduleName, selectedSlider.name());
+            if (moduleOrdinal >= 0 && tweakOrdinal >= 0) {
+                long key = MusePacketTweakBatch.key(itemTarget.getSelectedItem().inventorySlot, moduleOrdinal, tweakOrdinal);
+                pendingTweaks.put(key, selectedSlider.value());
+            }
         }
+    }
 
+    protected void sendTweaks() {
+        if (!pendingTweaks.isEmpty()) {
+            MusePacket tweakBatch = MusePacketTweakBatch.forTweaks(player, pendingTweaks);
+            PacketSender.sendToServer(tweakBatch.getPacket131());
+            pendingTweaks.clear();
+            lastTweakSent = System.currentTimeMillis();
+        }
     }
 
     @Override
@@ -140,13 +181,7 @@ public class ModuleTweakFrame extends ScrollableFrame {
 
     @Override
     public void onMouseUp(double x, double y, int button) {
-        if (selectedSlider != null && itemTarget.getSelectedItem() != null && moduleTarget.getSelectedModule() != null) {
-            ClickableItem item = itemTarget.getSelectedItem();
-            IPowerModule module = moduleTarget.getSelectedModule().getModule();
-            MusePacket tweakRequest = new MusePacketTweakRequest(player, item.inventorySlot, module.getDataName(), selectedSlider.name(),
-                    selectedSlider.value());
-            PacketSender.sendToServer(tweakRequest.getPacket131());
-        }
+        sendTweaks();
         if (button == 0) {
             selectedSlider = null;
         }
@@ -1,28 +1,59 @@
 package net.machinemuse.general.gui.frame;
 
-import net.machinemuse.general.NBTTagAccessor;
 import net.machinemuse.numina.geometry.Colour;
 import net.machinemuse.numina.geometry.MusePoint2D;
-import net.machinemuse.utils.MuseItemUtils;
+import net.machinemuse.numina.network.PacketSender;
+import net.machinemuse.numina.render.RenderState;
+import net.machinemuse.powersuits.network.packets.MusePacketEnergyTelemetry;
+import net.machinemuse.powersuits.network.packets.MusePacketEnergyTelemetryRequest;
+import net.machinemuse.utils.MuseStringUtils;
 import net.machinemuse.utils.render.MuseRenderer;
-import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.entity.player.EntityPlayer;
 import org.lwjgl.opengl.GL11;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
+/**
+ * Graphs the player's energy use over the last few seconds, one bar per tick. Each bar is split by module: the
+ * heaviest few get their own colour and everything else is lumped together. Hovering over the graph lists each
+ * one's average use.
+ * <p>
+ * Most drains only happen on the server, so the figures come from there: while the frame is open it asks for a fresh
+ * snapshot of the player's telemetry every REQUEST_INTERVAL milliseconds.
+ */
 public class StatsFrame extends ScrollableFrame {
-    protected NBTTagCompound properties;
-    protected ItemStack stack;
-    protected Set<String> propertiesToList;
+    protected static final long REQUEST_INTERVAL = 500;
+    /**
+     * Bar colours for the heaviest sources in order, and the chat formatting codes that match them in the tooltip
+     */
+    protected static final Colour[] SOURCE_COLOURS = {Colour.LIGHTBLUE, Colour.YELLOW, Colour.GREEN};
+    protected static final char[] SOURCE_FORMATS = {'b', 'e', 'a'};
+    protected static final Colour REST_COLOUR = new Colour(0.6, 0.6, 0.6, 1.0);
+    protected EntityPlayer player;
+    /**
+     * Whatever snapshot was left over from before the frame opened; not shown, since it may be long out of date
+     */
+    protected MusePacketEnergyTelemetry stale;
+    protected MusePacketEnergyTelemetry telemetry;
+    protected long lastRequest;
 
-    public StatsFrame(MusePoint2D topleft, MusePoint2D bottomright,
-                      Colour borderColour, Colour insideColour, ItemStack stack) {
+    public StatsFrame(EntityPlayer player, MusePoint2D topleft, MusePoint2D bottomright,
+                      Colour borderColour, Colour insideColour) {
         super(topleft, bottomright, borderColour, insideColour);
-        this.stack = stack;
-        this.properties = MuseItemUtils.getMuseItemTag(stack);
-        this.propertiesToList = NBTTagAccessor.getMap(properties).keySet();
+        this.player = player;
+        this.stale = MusePacketEnergyTelemetry.latest();
+    }
+
+    @Override
+    public void update(double mousex, double mousey) {
+        long now = System.currentTimeMillis();
+        if (now - lastRequest >= REQUEST_INTERVAL) {
+            PacketSender.sendToServer(new MusePacketEnergyTelemetryRequest(player).getPacket131());
+            lastRequest = now;
+        }
+        MusePacketEnergyTelemetry latest = MusePacketEnergyTelemetry.latest();
+        telemetry = latest == stale ? null : latest;
     }
 
     @Override
@@ -31,17 +62,69 @@ public class StatsFrame extends ScrollableFrame {
         super.draw();
         int xoffset = 8;
         int yoffset = 8;
-        int i = 0;
-        for (String propName : propertiesToList) {
-            double propValue = MuseItemUtils.getDoubleOrZero(properties, propName);
-            String propValueString = String.format("%.2f", propValue);
-            double strlen = MuseRenderer.getStringWidth(propValueString);
-            MuseRenderer.drawString(propName, border.left() + xoffset, border.top() + yoffset + i * 10);
-            MuseRenderer.drawString(propValueString, border.bottom() - xoffset - strlen - 40, border.top() + yoffset + i * 10);
-            i++;
+        if (telemetry == null) {
+            MuseRenderer.drawString("Energy Use: waiting for data...", border.left() + xoffset, border.top() + yoffset);
+            GL11.glPopMatrix();
+            return;
+        }
+        double[] drained = telemetry.drained();
+        int history = drained.length;
+        double[][] sourceDrained = telemetry.sourceDrained();
+        int sources = Math.min(sourceDrained.length, SOURCE_COLOURS.length);
+        double peak = 0;
+        double total = 0;
+        for (int ago = 0; ago < history; ago++) {
+            peak = Math.max(peak, drained[ago]);
+            total += drained[ago];
+        }
+        String usage = "Energy Use: " + MuseStringUtils.formatNumberShort(history > 0 ? total / history : 0) + "J/t";
+        MuseRenderer.drawString(usage, border.left() + xoffset, border.top() + yoffset);
+        if (sources > 0) {
+            MuseRenderer.drawRightAlignedString(telemetry.getSourceName(0), border.right() - xoffset, border.top() + yoffset);
+        }
+
+        double left = border.left() + xoffset;
+        double bottom = border.bottom() - 4;
+        double graphTop = border.top() + yoffset + 10;
+        if (peak > 0 && bottom > graphTop) {
+            double barWidth = (border.width() - 2 * xoffset) / history;
+            double scale = (bottom - graphTop) / peak;
+            RenderState.texturelessOn();
+            GL11.glBegin(GL11.GL_QUADS);
+            for (int ago = 0; ago < history; ago++) {
+                // Oldest on the left, newest on the right; segments stacked heaviest source first
+                double x = left + (history - 1 - ago) * barWidth;
+                double y = bottom;
+                double attributed = 0;
+                for (int s = 0; s < sources; s++) {
+                    double amount = sourceDrained[s][ago];
+                    attributed += amount;
+                    y = drawSegment(x, barWidth, y, amount * scale, SOURCE_COLOURS[s]);
+                }
+                drawSegment(x, barWidth, y, Math.max(0, drained[ago] - attributed) * scale, REST_COLOUR);
+            }
+            Colour.WHITE.doGL();
+            GL11.glEnd();
+            RenderState.texturelessOff();
         }
         GL11.glPopMatrix();
+    }
 
+    /**
+     * Adds one segment of a bar to the current quad batch.
+     *
+     * @return the top of the segment, where the next one starts
+     */
+    protected double drawSegment(double x, double width, double y, double height, Colour colour) {
+        if (height <= 0) {
+            return y;
+        }
+        colour.doGL();
+        GL11.glVertex3d(x, y, 1);
+        GL11.glVertex3d(x + width, y, 1);
+        GL11.glVertex3d(x + width, y - height, 1);
+        GL11.glVertex3d(x, y - height, 1);
+        return y - height;
     }
 
     @Override
@@ -58,7 +141,32 @@ public class StatsFrame extends ScrollableFrame {
 
     @Override
     public List<String> getToolTip(int x, int y) {
-        // TODO Auto-generated method stub
-        return null;
+        if (telemetry == null || x < border.left() || x > border.right() || y < border.top() || y > border.bottom()) {
+            return null;
+        }
+        double[] drained = telemetry.drained();
+        double[][] sourceDrained = telemetry.sourceDrained();
+        int sources = Math.min(sourceDrained.length, SOURCE_COLOURS.length);
+        double total = average(drained);
+        double attributed = 0;
+        List<String> lines = new ArrayList<String>();
+        lines.add("Average energy use:");
+        for (int s = 0; s < sources; s++) {
+            double average = average(sourceDrained[s]);
+            attributed += average;
+            lines.add(MuseStringUtils.prependFormatTag(telemetry.getSourceName(s) + ": " + MuseStringUtils.formatNumberShort(average) + "J/t", SOURCE_FORMATS[s]));
+        }
+        if (total - attributed > 0) {
+            lines.add(MuseStringUtils.prependFormatTag("Everything else: " + MuseStringUtils.formatNumberShort(total - attributed) + "J/t", '7'));
+        }
+        return lines;
+    }
+
+    protected static double average(double[] series) {
+        double sum = 0;
+        for (double amount : series) {
+            sum += amount;
+        }
+        return series.length > 0 ? sum / series.length : 0;
     }
 }
@@ -181,6 +181,24 @@ object Config {
     return config.get(Configuration.CATEGORY_GENERAL, "Base Heat Cap", 50.0).getDouble(50.0)
   }
 
+  /**
+   * Which kinds of battery get drained first, as a comma-separated list of "mps" (MPS items), "armor" (other mods'
+   * items in the armor slots) and "foreign" (other mods' items anywhere else). Kinds left out go last.
+   */
+  def energyDrainOrder: Array[String] = {
+    val order = config.get(Configuration.CATEGORY_GENERAL, "Energy Drain Order", "mps,armor,foreign",
+      "Which batteries to use first: mps, armor, foreign").getString
+    order.split(',').map(_.trim.toLowerCase)
+  }
+
+  /**
+   * How often, in milliseconds, a tinker slider being dragged sends its value to the server. Releasing the slider
+   * always sends it straight away.
+   */
+  def tweakSendInterval: Int = {
+    return config.get(Configuration.CATEGORY_GENERAL, "Tweak Send Interval (ms)", 100).getInt(100)
+  }
+
   def allowConflictingKeybinds: Boolean = {
     return config.get(Configuration.CATEGORY_GENERAL, "Allow Conflicting Keybinds", true).getBoolean(true)
   }
@@ -0,0 +1,38 @@
+package net.machinemuse.powersuits.common
+
+import net.machinemuse.api.ModuleManager
+import net.machinemuse.utils.{ElectricItemUtils, EnergyTelemetry, MuseStringUtils}
+import net.minecraft.command.{CommandBase, ICommandSender}
+import net.minecraft.entity.player.EntityPlayerMP
+import net.minecraft.util.ChatComponentText
+
+/**
+ * /mpsenergy [player]: lists the modules that have drained the most energy from a player over the last few seconds.
+ */
+class EnergyUsageCommand extends CommandBase {
+  override def getCommandName: String = "mpsenergy"
+
+  override def getCommandUsage(sender: ICommandSender): String = "/mpsenergy [player]"
+
+  override def getRequiredPermissionLevel: Int = 2
+
+  override def processCommand(sender: ICommandSender, args: Array[String]) {
+    val player: EntityPlayerMP = if (args.length > 0) CommandBase.getPlayer(sender, args(0)) else CommandBase.getCommandSenderAsPlayer(sender)
+    val telemetry = ElectricItemUtils.getEnergyPool(player).telemetry
+    telemetry.advanceTo(player.worldObj.getTotalWorldTime)
+    val usage = (0 until telemetry.sources).map(source => (source, telemetry.getAverageDrained(source))).filter(_._2 > 0).sortBy(-_._2)
+    sender.addChatMessage(new ChatComponentText("Energy use for " + player.getCommandSenderName + " over the last " +
+      EnergyTelemetry.HISTORY + " ticks:"))
+    if (usage.isEmpty) {
+      sender.addChatMessage(new ChatComponentText("  nothing"))
+    }
+    for ((source, drain) <- usage.take(10)) {
+      val name = if (source == telemetry.unattributed) "Other" else ModuleManager.getModule(source).getLocalizedName
+      sender.addChatMessage(new ChatComponentText("  " + name + ": " + MuseStringUtils.formatNumberShort(drain) + "J/t"))
+    }
+  }
+
+  override def addTabCompletionOptions(sender: ICommandSender, args: Array[String]): java.util.List[_] = {
+    if (args.length == 1) CommandBase.getListOfStringsMatchingLastWord(args, net.minecraft.server.MinecraftServer.getServer.getAllUsernames: _*) else null
+  }
+}
@@ -2,13 +2,14 @@ package net.machinemuse.powersuits.common
 
 import java.io.File
 
-import cpw.mods.fml.common.{Mod, SidedProxy}
-import cpw.mods.fml.common.event.{FMLInitializationEvent, FMLPostInitializationEvent, FMLPreInitializationEvent}
+import cpw.mods.fml.common.{FMLCommonHandler, Mod, SidedProxy}
+import cpw.mods.fml.common.event.{FMLInitializationEvent, FMLPostInitializationEvent, FMLPreInitializationEvent, FMLServerStartingEvent}
 import cpw.mods.fml.common.network.NetworkRegistry
 import cpw.mods.fml.common.registry.EntityRegistry
+import net.machinemuse.api.ModuleManager
 import net.machinemuse.powersuits.entity.{EntityLuxCapacitor, EntityPlasmaBolt, EntitySpinningBlade}
-import net.machinemuse.powersuits.event.{HarvestEventHandler, MovementManager}
-import net.machinemuse.powersuits.network.packets.MPSPacketList
+import net.machinemuse.powersuits.event.{HarvestEventHandler, MovementManager, PlayerLogoutHandler}
+import net.machinemuse.powersuits.network.packets.{MPSPacketList, MusePacketPropertyModifierConfig}
 import net.minecraftforge.common.MinecraftForge
 import net.minecraftforge.common.config.Configuration
 
@@ -32,6 +33,7 @@ object ModularPowersuits {
     Config.setConfigFolderBase(event.getModConfigurationDirectory)
     MinecraftForge.EVENT_BUS.register(new HarvestEventHandler)
     MinecraftForge.EVENT_BUS.register(new MovementManager)
+    FMLCommonHandler.instance.bus.register(PlayerLogoutHandler)
     proxy.registerEvents()
   }
 
@@ -65,6 +67,12 @@ object ModularPowersuits {
     proxy.postInit()
     ModCompatability.registerModSpecificModules()
     Config.getConfig.save
+    ModuleManager.freeze()
+    MusePacketPropertyModifierConfig.computeHashes()
+  }
+
+  @Mod.EventHandler def serverStarting(event: FMLServerStartingEvent) {
+    event.registerServerCommand(new EnergyUsageCommand)
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package net.machinemuse.powersuits.common
+
+import java.io._
+
+import cpw.mods.fml.relauncher.{Side, SideOnly}
+import net.machinemuse.numina.general.MuseLogger
+import net.machinemuse.powersuits.network.packets.MusePacketPropertyModifierConfig
+import net.minecraft.client.Minecraft
+
+/**
+ * Client-side copy of each server's module settings, one file per server address, so rejoining a server whose
+ * settings haven't changed only costs the hash.
+ */
+@SideOnly(Side.CLIENT)
+object PropertyModifierConfigCache {
+  protected def cacheFile: File = {
+    val server = Minecraft.getMinecraft.func_147104_D // getCurrentServerData
+    val name = if (server == null) "local" else server.serverIP.replaceAll("[^A-Za-z0-9._-]", "_")
+    new File(Config.configFolder, "servercache/" + name + ".dat")
+  }
+
+  /**
+   * Applies the cached settings for the current server if they're the ones with this hash.
+   *
+   * @return whether they were
+   */
+  def load(hash: Int): Boolean = {
+    val file = cacheFile
+    if (!file.isFile) return false
+    try {
+      val in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+      try {
+        if (in.readInt != hash) return false
+        MusePacketPropertyModifierConfig.readModules(in)
+        true
+      } finally {
+        in.close()
+      }
+    } catch {
+      case e: IOException =>
+        MuseLogger.logDebug("Couldn't read cached module settings from " + file)
+        false
+    }
+  }
+
+  def save(hash: Int, modules: Array[Byte]) {
+    val file = cacheFile
+    try {
+      file.getParentFile.mkdirs()
+      val out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))
+      try {
+        out.writeInt(hash)
+        out.write(modules)
+      } finally {
+        out.close()
+      }
+    } catch {
+      case e: IOException => MuseLogger.logDebug("Couldn't cache module settings to " + file)
+    }
+  }
+}
@@ -1,22 +1,84 @@
 package net.machinemuse.powersuits.control;
 
+import net.minecraft.entity.player.EntityPlayer;
+
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * The movement keys and motion of one player, as last reported by their client.
+ * <p>
+ * On the server, a player's map is only ever replaced, never changed in place: the packet handler copies the
+ * current one, applies the update and publishes the copy. Readers on the server thread can hold a map for a whole
+ * tick without seeing it change under them. Clients and the server keep separate stores, since in single player
+ * both sides see the same player, and the server's entries are dropped when players log out.
+ */
 public class PlayerInputMap {
-	protected static Map<String, PlayerInputMap> playerInputs = new HashMap();
+	protected static final ConcurrentMap<UUID, PlayerInputMap> serverInputs = new ConcurrentHashMap<UUID, PlayerInputMap>();
+	protected static final ConcurrentMap<UUID, PlayerInputMap> clientInputs = new ConcurrentHashMap<UUID, PlayerInputMap>();
+
+	protected static ConcurrentMap<UUID, PlayerInputMap> storeFor(EntityPlayer player) {
+		return player.worldObj.isRemote ? clientInputs : serverInputs;
+	}
 
-	public static PlayerInputMap getInputMapFor(String playerName) {
-		PlayerInputMap map = playerInputs.get(playerName);
+	public static PlayerInputMap getInputMapFor(EntityPlayer player) {
+		ConcurrentMap<UUID, PlayerInputMap> inputs = storeFor(player);
+		PlayerInputMap map = inputs.get(player.getUniqueID());
 		if (map == null) {
-			map = new PlayerInputMap(playerName);
+			map = new PlayerInputMap();
+			PlayerInputMap existing = inputs.putIfAbsent(player.getUniqueID(), map);
+			if (existing != null) {
+				map = existing;
+			}
 		}
 		return map;
 	}
 
+	/**
+	 * Replaces the player's map with a new one. The map shouldn't be changed after this.
+	 */
+	public static void publish(EntityPlayer player, PlayerInputMap map) {
+		storeFor(player).put(player.getUniqueID(), map);
+	}
+
+	public static void forget(EntityPlayer player) {
+		storeFor(player).remove(player.getUniqueID());
+	}
+
+	/**
+	 * Drops every client-side map, for when the client leaves a server.
+	 */
+	public static void forgetClientInputs() {
+		clientInputs.clear();
+	}
+
+	/**
+	 * Bits of the field mask at the head of an input packet, saying which fields follow
+	 */
+	public static final int KEYS = 1;
+	public static final int FORWARD = 2;
+	public static final int STRAFE = 4;
+	public static final int MOTION_X = 8;
+	public static final int MOTION_Y = 16;
+	public static final int MOTION_Z = 32;
+	public static final int ALL_FIELDS = KEYS | FORWARD | STRAFE | MOTION_X | MOTION_Y | MOTION_Z;
+	/**
+	 * Set on packets the server passes on to other players, which carry the entity id of the player they're about
+	 */
+	public static final int RELAYED = 128;
+
+	/**
+	 * Motion goes over the wire as a short in 1/4096ths of a block per tick, which covers +/-8 blocks per tick
+	 */
+	public static final double MOTION_SCALE = 4096;
+
+	/**
+	 * Client side only: the state as of the last packet sent to the server
+	 */
 	public PlayerInputMap lastSentMap;
 
 	public float forwardKey;
@@ -28,25 +90,82 @@ public class PlayerInputMap {
 	public double motionY;
 	public double motionZ;
 
+	public PlayerInputMap() {
+	}
+
 	public PlayerInputMap(PlayerInputMap master) {
 		this.setTo(master);
 	}
 
-	public PlayerInputMap(String playerName) {
-		playerInputs.put(playerName, this);
-		lastSentMap = new PlayerInputMap(this);
+	public static short quantizeMotion(double motion) {
+		return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(motion * MOTION_SCALE)));
 	}
 
-	public boolean writeToStream(DataOutputStream stream) {
+	public static double dequantizeMotion(short motion) {
+		return motion / MOTION_SCALE;
+	}
+
+	/**
+	 * Rounds the motion to what the packet can carry, so a change too small to send doesn't count as a change.
+	 */
+	public void setMotion(double x, double y, double z) {
+		motionX = dequantizeMotion(quantizeMotion(x));
+		motionY = dequantizeMotion(quantizeMotion(y));
+		motionZ = dequantizeMotion(quantizeMotion(z));
+	}
+
+	/**
+	 * @return the mask of fields that differ from the other map; all of them if it's null
+	 */
+	public int changedFields(PlayerInputMap other) {
+		if (other == null) {
+			return ALL_FIELDS;
+		}
+		int fields = 0;
+		if (other.jumpKey != jumpKey || other.sneakKey != sneakKey || other.downKey != downKey) {
+			fields |= KEYS;
+		}
+		if (other.forwardKey != forwardKey) {
+			fields |= FORWARD;
+		}
+		if (other.strafeKey != strafeKey) {
+			fields |= STRAFE;
+		}
+		if (quantizeMotion(other.motionX) != quantizeMotion(motionX)) {
+			fields |= MOTION_X;
+		}
+		if (quantizeMotion(other.motionY) != quantizeMotion(motionY)) {
+			fields |= MOTION_Y;
+		}
+		if (quantizeMotion(other.motionZ) != quantizeMotion(motionZ)) {
+			fields |= MOTION_Z;
+		}
+		return fields;
+	}
+
+	/**
+	 * Writes just the fields in the mask. The mask itself is up to the caller, since it's sent ahead of anything else.
+	 */
+	public boolean writeToStream(DataOutputStream stream, int fields) {
 		try {
-			stream.writeFloat(forwardKey);
-			stream.writeFloat(strafeKey);
-			stream.writeBoolean(jumpKey);
-			stream.writeBoolean(sneakKey);
-			stream.writeBoolean(downKey);
-			stream.writeDouble(motionX);
-			stream.writeDouble(motionY);
-			stream.writeDouble(motionZ);
+			if ((fields & KEYS) != 0) {
+				stream.writeByte((jumpKey ? 1 : 0) | (sneakKey ? 2 : 0) | (downKey ? 4 : 0));
+			}
+			if ((fields & FORWARD) != 0) {
+				stream.writeByte((int) Math.signum(forwardKey));
+			}
+			if ((fields & STRAFE) != 0) {
+				stream.writeByte((int) Math.signum(strafeKey));
+			}
+			if ((fields & MOTION_X) != 0) {
+				stream.writeShort(quantizeMotion(motionX));
+			}
+			if ((fields & MOTION_Y) != 0) {
+				stream.writeShort(quantizeMotion(motionY));
+			}
+			if ((fields & MOTION_Z) != 0) {
+				stream.writeShort(quantizeMotion(motionZ));
+			}
 			return true;
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -54,16 +173,32 @@ public class PlayerInputMap {
 		}
 	}
 
-	public boolean readFromStream(DataInputStream stream) {
+	/**
+	 * Reads the fields in the mask over the top of this map, leaving the others as they were.
+	 */
+	public boolean readFromStream(DataInputStream stream, int fields) {
 		try {
-			forwardKey = stream.readFloat();
-			strafeKey = stream.readFloat();
-			jumpKey = stream.readBoolean();
-			sneakKey = stream.readBoolean();
-			downKey = stream.readBoolean();
-			motionX = stream.readDouble();
-			motionY = stream.readDouble();
-			motionZ = stream.readDouble();
+			if ((fields & KEYS) != 0) {
+				int keys = stream.readByte();
+				jumpKey = (keys & 1) != 0;
+				sneakKey = (keys & 2) != 0;
+				downKey = (keys & 4) != 0;
+			}
+			if ((fields & FORWARD) != 0) {
+				forwardKey = stream.readByte();
+			}
+			if ((fields & STRAFE) != 0) {
+				strafeKey = stream.readByte();
+			}
+			if ((fields & MOTION_X) != 0) {
+				motionX = dequantizeMotion(stream.readShort());
+			}
+			if ((fields & MOTION_Y) != 0) {
+				motionY = dequantizeMotion(stream.readShort());
+			}
+			if ((fields & MOTION_Z) != 0) {
+				motionZ = dequantizeMotion(stream.readShort());
+			}
 			return true;
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -100,10 +235,14 @@ public class PlayerInputMap {
 	}
 
 	public boolean hasChanged() {
-		return this.equals(lastSentMap);
+		return changedFields(lastSentMap) != 0;
 	}
 
 	public void refresh() {
-		this.lastSentMap.setTo(this);
+		if (lastSentMap == null) {
+			lastSentMap = new PlayerInputMap(this);
+		} else {
+			lastSentMap.setTo(this);
+		}
 	}
 }
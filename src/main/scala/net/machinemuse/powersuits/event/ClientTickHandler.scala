@@ -35,17 +35,16 @@ class ClientTickHandler {
     else {
       val player: EntityClientPlayerMP = Minecraft.getMinecraft.thePlayer
       if (player != null && MuseItemUtils.getModularItemsInInventory(player).size > 0) {
-        val inputmap: PlayerInputMap = PlayerInputMap.getInputMapFor(player.getCommandSenderName)
+        val inputmap: PlayerInputMap = PlayerInputMap.getInputMapFor(player)
         inputmap.forwardKey = Math.signum(player.movementInput.moveForward)
         inputmap.strafeKey = Math.signum(player.movementInput.moveStrafe)
         inputmap.jumpKey = player.movementInput.jump
         inputmap.sneakKey = player.movementInput.sneak
-        inputmap.motionX = player.motionX
-        inputmap.motionY = player.motionY
-        inputmap.motionZ = player.motionZ
-        if (inputmap.hasChanged) {
+        inputmap.setMotion(player.motionX, player.motionY, player.motionZ)
+        val changed = inputmap.changedFields(inputmap.lastSentMap)
+        if (changed != 0) {
+          val inputPacket: MusePacket = new MusePacketPlayerUpdate(player, inputmap, changed)
           inputmap.refresh()
-          val inputPacket: MusePacket = new MusePacketPlayerUpdate(player, inputmap)
           PacketSender.sendToServer(inputPacket)
         }
       }
@@ -39,14 +39,13 @@ public class MovementManager {
             ItemStack stack = player.getCurrentArmor(1);
             if (stack != null && stack.getItem() instanceof ItemPowerArmor
                     && ModuleManager.itemHasActiveModule(stack, JumpAssistModule.MODULE_JUMP_ASSIST)) {
-                double jumpAssist = ModuleManager.computeModularProperty(stack, JumpAssistModule.JUMP_MULTIPLIER) * 2;
-                double drain = ModuleManager.computeModularProperty(stack, JumpAssistModule.JUMP_ENERGY_CONSUMPTION);
-                double avail = ElectricItemUtils.getPlayerEnergy(player);
+                double[] jump = ModuleManager.computeModularProperties(stack, JumpAssistModule.JUMP_SCRATCH.get(), JumpAssistModule.JUMP_KEYS);
+                double jumpAssist = jump[0] * 2;
+                double drain = jump[1];
                 Musique.playerSound(player, SoundDictionary.SOUND_JUMP_ASSIST, (float) (jumpAssist / 8.0), 1, false);
-                if (drain < avail) {
-                    ElectricItemUtils.drainPlayerEnergy(player, drain);
+                if (ElectricItemUtils.tryDrain(player, drain, JumpAssistModule.MODULE_JUMP_ASSIST)) {
                     setPlayerJumpTicks(player, jumpAssist);
-                    double jumpCompensationRatio = ModuleManager.computeModularProperty(stack, JumpAssistModule.JUMP_FOOD_COMPENSATION);
+                    double jumpCompensationRatio = jump[2];
                     if (player.isSprinting()) {
                         player.getFoodStats().addExhaustion((float) (-0.8 * jumpCompensationRatio));
                     } else {
@@ -66,13 +65,12 @@ public class MovementManager {
             ItemStack boots = player.getCurrentArmor(0);
             if (boots != null) {
                 if (ModuleManager.itemHasActiveModule(boots, ShockAbsorberModule.MODULE_SHOCK_ABSORBER) && event.distance > 3) {
-                    double distanceAbsorb = event.distance * ModuleManager.computeModularProperty(boots, ShockAbsorberModule.SHOCK_ABSORB_MULTIPLIER);
+                    double[] shock = ModuleManager.computeModularProperties(boots, ShockAbsorberModule.SHOCK_ABSORB_SCRATCH.get(), ShockAbsorberModule.SHOCK_ABSORB_KEYS);
+                    double distanceAbsorb = event.distance * shock[0];
                     Musique.playerSound(player, SoundDictionary.SOUND_GUI_INSTALL, (float) (distanceAbsorb), 1, false);
 
-                    double drain = distanceAbsorb * ModuleManager.computeModularProperty(boots, ShockAbsorberModule.SHOCK_ABSORB_ENERGY_CONSUMPTION);
-                    double avail = ElectricItemUtils.getPlayerEnergy(player);
-                    if (drain < avail) {
-                        ElectricItemUtils.drainPlayerEnergy(player, drain);
+                    double drain = distanceAbsorb * shock[1];
+                    if (ElectricItemUtils.tryDrain(player, drain, ShockAbsorberModule.MODULE_SHOCK_ABSORBER)) {
                         event.distance -= distanceAbsorb;
                     }
                 }
@@ -3,7 +3,7 @@ package net.machinemuse.powersuits.event
 import cpw.mods.fml.common.eventhandler.SubscribeEvent
 import cpw.mods.fml.common.gameevent.PlayerEvent.PlayerLoggedInEvent
 import net.machinemuse.numina.network.PacketSender
-import net.machinemuse.powersuits.network.packets.MusePacketPropertyModifierConfig
+import net.machinemuse.powersuits.network.packets.{MusePacketModuleOrdinals, MusePacketPropertyModifierConfig, MusePacketPropertyModifierConfigHash}
 import net.minecraft.entity.player.{EntityPlayerMP, EntityPlayer}
 
 /**
@@ -14,8 +14,9 @@ object PlayerLoginHandlerThingy {
   @SubscribeEvent
   def onPlayerLogin(e: PlayerLoggedInEvent) {
     val player = e.player
+    PacketSender.sendTo(MusePacketModuleOrdinals.forServer(player), player.asInstanceOf[EntityPlayerMP])
     PacketSender.sendTo(
-      new MusePacketPropertyModifierConfig(player, null),
+      new MusePacketPropertyModifierConfigHash(player, MusePacketPropertyModifierConfig.configHash),
       player.asInstanceOf[EntityPlayerMP]
     )
   }
@@ -0,0 +1,23 @@
+package net.machinemuse.powersuits.event
+
+import cpw.mods.fml.common.eventhandler.SubscribeEvent
+import cpw.mods.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent
+import cpw.mods.fml.common.network.FMLNetworkEvent.ClientDisconnectionFromServerEvent
+import net.machinemuse.powersuits.control.PlayerInputMap
+import net.machinemuse.powersuits.network.packets.MusePacketModuleOrdinals
+
+/**
+ * Drops per-player state that would otherwise hang around for every player who ever logged in.
+ */
+object PlayerLogoutHandler {
+  @SubscribeEvent
+  def onPlayerLogout(e: PlayerLoggedOutEvent) {
+    PlayerInputMap.forget(e.player)
+  }
+
+  @SubscribeEvent
+  def onClientDisconnect(e: ClientDisconnectionFromServerEvent) {
+    PlayerInputMap.forgetClientInputs()
+    MusePacketModuleOrdinals.forget()
+  }
+}
@@ -1,26 +1,41 @@
 package net.machinemuse.powersuits.event
 
+import java.util.BitSet
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.google.common.collect.MapMaker
 import cpw.mods.fml.common.eventhandler.SubscribeEvent
-import net.machinemuse.api.ModuleManager
+import net.machinemuse.api.moduletrigger.{IPlayerTickContextModule, IPlayerTickModule, PlayerTickContext}
+import net.machinemuse.api.{CompiledPropertyTable, IModularItem, ModuleManager, MuseItemTag}
 import net.machinemuse.general.sound.SoundDictionary
 import net.machinemuse.numina.general.MuseMathUtils
 import net.machinemuse.numina.scala.OptionCast
 import net.machinemuse.numina.sound.Musique
 import net.machinemuse.utils.{MuseHeatUtils, MuseItemUtils, MusePlayerUtils}
 import net.minecraft.entity.player.EntityPlayer
+import net.minecraft.item.ItemStack
 import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent
 
 /**
  * Created by Claire Semple on 9/8/2014.
  */
 class PlayerUpdateHandler {
+  val playerStates: java.util.Map[EntityPlayer, PlayerTickState] = new MapMaker().weakKeys().makeMap[EntityPlayer, PlayerTickState]()
+
   @SubscribeEvent
   def onPlayerUpdate(e: LivingUpdateEvent) = {
     e.entity match {
       case player: EntityPlayer => {
 
-        val modularItemsEquipped = MuseItemUtils.modularItemsEquipped(player)
-        val totalWeight: Double = MuseItemUtils.getPlayerWeight(player)
+        val state = playerStates.get(player) match {
+          case null =>
+            val fresh = new PlayerTickState
+            playerStates.put(player, fresh)
+            fresh
+          case existing => existing
+        }
+        val equipmentChanged = state.updateEquipment(player)
+        val modularItemsEquipped = state.modularItemsEquipped
         val weightCapacity: Double = 25000
 
         import scala.collection.JavaConversions._
@@ -30,42 +45,68 @@ class PlayerUpdateHandler {
           }
         }
 
-
-
-        var foundItemWithModule: Boolean = false
-        import scala.collection.JavaConversions._
-        for (module <- ModuleManager.getPlayerTickModules) {
-          foundItemWithModule = false
-          import scala.collection.JavaConversions._
-          for (itemStack <- modularItemsEquipped) {
-            if (module.isValidForItem(itemStack)) {
-              if (ModuleManager.itemHasActiveModule(itemStack, module.getDataName)) {
-                module.onPlayerTickActive(player, itemStack)
-                foundItemWithModule = true
+        if (modularItemsEquipped.isEmpty) {
+          state.lastContext = null
+        } else {
+          val context = PlayerTickContext.build(player, modularItemsEquipped, state.lastContext, equipmentChanged)
+          state.lastContext = context
+          // Modules drain a little at a time; batch it up so each battery is written once this tick
+          context.energyPool.openLedger()
+          try {
+            val activeNow = state.activeScratch
+            activeNow.clear()
+            val slot = player.worldObj.getTotalWorldTime + state.tickPhase
+            for (itemStack <- modularItemsEquipped) {
+              val mask = ModuleManager.getPlayerTickModuleMask(itemStack.getItem)
+              val index = ModuleManager.getModuleIndex(MuseItemTag.getMuseItemTag(itemStack))
+              var ordinal = index.installed.nextSetBit(0)
+              while (ordinal >= 0) {
+                if (mask.get(ordinal) && ModuleManager.itemHasActiveModule(itemStack, ordinal, index)) {
+                  // Interval modules run on their own slot, offset by ordinal so one player's don't all land together
+                  val interval = ModuleManager.getTickInterval(ordinal)
+                  if (interval == 1 || (slot + ordinal) % interval == 0 || !state.activeLastTick.get(ordinal)) {
+                    // Count whatever the module drains or charges against it in the energy telemetry
+                    context.energyPool.source = ordinal
+                    ModuleManager.getModule(ordinal) match {
+                      case module: IPlayerTickContextModule => module.onPlayerTickActive(context, itemStack)
+                      case module: IPlayerTickModule => module.onPlayerTickActive(player, itemStack)
+                    }
+                  }
+                  activeNow.set(ordinal)
+                }
+                ordinal = index.installed.nextSetBit(ordinal + 1)
               }
             }
-          }
-          if (!foundItemWithModule) {
-            import scala.collection.JavaConversions._
-            for (itemStack <- modularItemsEquipped) {
-              module.onPlayerTickInactive(player, itemStack)
+            // Every tick module not running on any equipped item gets onPlayerTickInactive for each of them, every
+            // tick, as before; some use it to undo effects on stacks that were swapped in while already inactive
+            val tickModules = PlayerTickState.allTickModules
+            var inactive = tickModules.nextSetBit(0)
+            while (inactive >= 0) {
+              if (!activeNow.get(inactive)) {
+                val module = ModuleManager.getModule(inactive).asInstanceOf[IPlayerTickModule]
+                context.energyPool.source = inactive
+                for (itemStack <- modularItemsEquipped) {
+                  module.onPlayerTickInactive(player, itemStack)
+                }
+              }
+              inactive = tickModules.nextSetBit(inactive + 1)
             }
+            state.activeScratch = state.activeLastTick
+            state.activeLastTick = activeNow
+          } finally {
+            context.energyPool.source = -1
+            context.energyPool.commitLedger()
           }
-        }
-
-
-        val foundItem: Boolean = modularItemsEquipped.size > 0
-
 
-        if (foundItem) {
+          val totalWeight: Double = context.weight
           player.fallDistance = MovementManager.computeFallHeightFromVelocity(MuseMathUtils.clampDouble(player.motionY, -1000.0, 0.0)).asInstanceOf[Float]
           if (totalWeight > weightCapacity) {
             player.motionX *= weightCapacity / totalWeight
             player.motionZ *= weightCapacity / totalWeight
           }
-          MuseHeatUtils.coolPlayer(player, MusePlayerUtils.getPlayerCoolingBasedOnMaterial(player))
-          val maxHeat: Double = MuseHeatUtils.getMaxHeat(player)
-          val currHeat: Double = MuseHeatUtils.getPlayerHeat(player)
+          context.coolPlayer(MusePlayerUtils.getPlayerCoolingBasedOnMaterial(player))
+          val maxHeat: Double = context.maxHeat
+          val currHeat: Double = context.getHeat
           if (currHeat > maxHeat) {
             player.attackEntityFrom(MuseHeatUtils.overheatDamage, Math.sqrt(currHeat - maxHeat).asInstanceOf[Int] / 4)
             player.setFire(1)
@@ -85,4 +126,69 @@ class PlayerUpdateHandler {
       case _ =>
     }
   }
-}
\ No newline at end of file
+}
+
+object PlayerTickState {
+  private val nextTickPhase = new AtomicInteger
+
+  /**
+   * Ordinals of every player tick module. Only read after the registry is frozen, so it never goes stale.
+   */
+  lazy val allTickModules: BitSet = {
+    val all = new BitSet
+    for (module <- ModuleManager.getPlayerTickModuleArray) {
+      all.set(ModuleManager.getModuleOrdinal(module.getDataName))
+    }
+    all
+  }
+}
+
+/**
+ * Per-player bookkeeping kept between ticks by PlayerUpdateHandler.
+ */
+class PlayerTickState {
+  /**
+   * Offset added to the world time when deciding whether an interval module is due. Handed out round-robin so
+   * players spread evenly over the slots instead of all running on tick % N == 0.
+   */
+  val tickPhase: Int = PlayerTickState.nextTickPhase.getAndIncrement
+  /**
+   * Ordinals of the tick modules that were active last tick. An interval module that has just been switched on
+   * runs straight away instead of waiting for its slot.
+   */
+  var activeLastTick: BitSet = new BitSet
+  var activeScratch: BitSet = new BitSet
+
+  /**
+   * What was in the armor slots and hand last tick, and the compiled property table of each modular one. Tables
+   * are replaced whenever their item's modules, tweaks or mode change, so they double as a version for the tag.
+   */
+  val equippedStacks: Array[ItemStack] = new Array[ItemStack](5)
+  val equippedTables: Array[CompiledPropertyTable] = new Array[CompiledPropertyTable](5)
+  var modularItemsEquipped: java.util.List[ItemStack] = java.util.Collections.emptyList()
+  var lastContext: PlayerTickContext = null
+
+  /**
+   * Compares the player's equipment against last tick's and refreshes modularItemsEquipped if it changed.
+   *
+   * @return true if anything was put on, taken off or modified
+   */
+  def updateEquipment(player: EntityPlayer): Boolean = {
+    var changed = false
+    var slot = 0
+    while (slot < 5) {
+      val stack = if (slot < 4) player.inventory.armorInventory(slot) else player.inventory.getCurrentItem
+      val table = if (stack != null && stack.getItem.isInstanceOf[IModularItem]) ModuleManager.getPropertyTable(stack) else null
+      if ((stack ne equippedStacks(slot)) || (table ne equippedTables(slot))) {
+        equippedStacks(slot) = stack
+        equippedTables(slot) = table
+        changed = true
+      }
+      slot += 1
+    }
+    if (changed) {
+      modularItemsEquipped = MuseItemUtils.modularItemsEquipped(player)
+    }
+    changed
+  }
+}
@@ -115,9 +115,10 @@ abstract class ItemPowerArmor(renderIndex: Int, armorType: Int)
     var totalArmor: Double = 0
     val props: NBTTagCompound = MuseItemUtils.getMuseItemTag(stack)
     val energy: Double = ElectricItemUtils.getPlayerEnergy(player)
-    val physArmor: Double = ModuleManager.computeModularProperty(stack, MuseCommonStrings.ARMOR_VALUE_PHYSICAL)
-    val enerArmor: Double = ModuleManager.computeModularProperty(stack, MuseCommonStrings.ARMOR_VALUE_ENERGY)
-    val enerConsum: Double = ModuleManager.computeModularProperty(stack, MuseCommonStrings.ARMOR_ENERGY_CONSUMPTION)
+    val armorProps: Array[Double] = ModuleManager.computeModularProperties(stack, MuseCommonStrings.ARMOR_SCRATCH.get(), MuseCommonStrings.ARMOR_KEYS: _*)
+    val physArmor: Double = armorProps(0)
+    val enerArmor: Double = armorProps(1)
+    val enerConsum: Double = armorProps(2)
     totalArmor += physArmor
     if (energy > enerConsum) {
       totalArmor += enerArmor
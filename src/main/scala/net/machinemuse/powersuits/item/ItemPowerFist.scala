@@ -91,11 +91,11 @@ with ModeChangingModularItem {
     }
     if (entityDoingHitting.isInstanceOf[EntityPlayer] && ModuleManager.itemHasActiveModule(stack, MeleeAssistModule.MODULE_MELEE_ASSIST)) {
       val player: EntityPlayer = entityDoingHitting.asInstanceOf[EntityPlayer]
-      val drain: Double = ModuleManager.computeModularProperty(stack, MeleeAssistModule.PUNCH_ENERGY)
-      if (ElectricItemUtils.getPlayerEnergy(player) > drain) {
-        ElectricItemUtils.drainPlayerEnergy(player, drain)
-        val damage: Double = ModuleManager.computeModularProperty(stack, MeleeAssistModule.PUNCH_DAMAGE)
-        val knockback: Double = ModuleManager.computeModularProperty(stack, MeleeAssistModule.PUNCH_KNOCKBACK)
+      val punch: Array[Double] = ModuleManager.computeModularProperties(stack, MeleeAssistModule.PUNCH_SCRATCH.get(), MeleeAssistModule.PUNCH_KEYS: _*)
+      val drain: Double = punch(0)
+      if (ElectricItemUtils.tryDrain(player, drain, MeleeAssistModule.MODULE_MELEE_ASSIST)) {
+        val damage: Double = punch(1)
+        val knockback: Double = punch(2)
         val damageSource: DamageSource = DamageSource.causePlayerDamage(player)
         if (entityBeingHit.attackEntityFrom(damageSource, damage.asInstanceOf[Int])) {
           val lookVec: Vec3 = player.getLookVec
@@ -223,7 +223,7 @@ with ModeChangingModularItem {
   @Optional.Method(modid = "Forestry")
   def getSaplingModifier(stack: ItemStack, world: World, player: EntityPlayer, x: Int, y: Int, z: Int): Float = {
     if (ModuleManager.itemHasActiveModule(stack, GrafterModule.MODULE_GRAFTER)) {
-      ElectricItemUtils.drainPlayerEnergy(player, ModuleManager.computeModularProperty(stack, GrafterModule.GRAFTER_ENERGY_CONSUMPTION))
+      ElectricItemUtils.drainPlayerEnergy(player, ModuleManager.computeModularProperty(stack, GrafterModule.GRAFTER_ENERGY_CONSUMPTION), GrafterModule.MODULE_GRAFTER)
       MuseHeatUtils.heatPlayer(player, ModuleManager.computeModularProperty(stack, GrafterModule.GRAFTER_HEAT_GENERATION))
       100F
     } else {
@@ -26,10 +26,8 @@ trait ModularItemBase extends Item with IModularItem with MuseElectricItem {
     if (!ModuleManager.itemHasActiveModule(stack, CosmeticGlowModule.MODULE_GLOW)) {
       return Colour.LIGHTBLUE
     }
-    val computedred: Double = ModuleManager.computeModularProperty(stack, CosmeticGlowModule.RED_GLOW)
-    val computedgreen: Double = ModuleManager.computeModularProperty(stack, CosmeticGlowModule.GREEN_GLOW)
-    val computedblue: Double = ModuleManager.computeModularProperty(stack, CosmeticGlowModule.BLUE_GLOW)
-    val colour: Colour = new Colour(clampDouble(computedred, 0, 1), clampDouble(computedgreen, 0, 1), clampDouble(computedblue, 0, 1), 0.8)
+    val computed: Array[Double] = ModuleManager.computeModularProperties(stack, CosmeticGlowModule.GLOW_SCRATCH.get(), CosmeticGlowModule.GLOW_KEYS: _*)
+    val colour: Colour = new Colour(clampDouble(computed(0), 0, 1), clampDouble(computed(1), 0, 1), clampDouble(computed(2), 0, 1), 0.8)
     colour
   }
 
@@ -37,10 +35,8 @@ trait ModularItemBase extends Item with IModularItem with MuseElectricItem {
     if (!ModuleManager.itemHasActiveModule(stack, TintModule.MODULE_TINT)) {
       return Colour.WHITE
     }
-    val computedred: Double = ModuleManager.computeModularProperty(stack, TintModule.RED_TINT)
-    val computedgreen: Double = ModuleManager.computeModularProperty(stack, TintModule.GREEN_TINT)
-    val computedblue: Double = ModuleManager.computeModularProperty(stack, TintModule.BLUE_TINT)
-    val colour: Colour = new Colour(clampDouble(computedred, 0, 1), clampDouble(computedgreen, 0, 1), clampDouble(computedblue, 0, 1), 1.0F)
+    val computed: Array[Double] = ModuleManager.computeModularProperties(stack, TintModule.TINT_SCRATCH.get(), TintModule.TINT_KEYS: _*)
+    val colour: Colour = new Colour(clampDouble(computed(0), 0, 1), clampDouble(computed(1), 0, 1), clampDouble(computed(2), 0, 1), 1.0F)
     colour
   }
 
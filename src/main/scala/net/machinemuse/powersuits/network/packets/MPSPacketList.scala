@@ -18,5 +18,12 @@ object MPSPacketList {
     MusePacketHandler.packagers.put(8, MusePacketPlasmaBolt)
     MusePacketHandler.packagers.put(10, MusePacketColourInfo)
     MusePacketHandler.packagers.put(11, MusePacketPropertyModifierConfig)
+    MusePacketHandler.packagers.put(12, MusePacketInventoryRefreshBatch)
+    MusePacketHandler.packagers.put(13, MusePacketPropertyModifierConfigHash)
+    MusePacketHandler.packagers.put(14, MusePacketPropertyModifierConfigRequest)
+    MusePacketHandler.packagers.put(15, MusePacketTweakBatch)
+    MusePacketHandler.packagers.put(16, MusePacketEnergyTelemetryRequest)
+    MusePacketHandler.packagers.put(17, MusePacketEnergyTelemetry)
+    MusePacketHandler.packagers.put(18, MusePacketModuleOrdinals)
   }
 }
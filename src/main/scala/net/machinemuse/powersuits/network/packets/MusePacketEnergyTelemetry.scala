@@ -0,0 +1,107 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import cpw.mods.fml.relauncher.{Side, SideOnly}
+import net.machinemuse.api.ModuleManager
+import net.machinemuse.numina.network.{MusePackager, MusePacket}
+import net.machinemuse.utils.{ElectricItemUtils, EnergyTelemetry}
+import net.minecraft.client.entity.EntityClientPlayerMP
+import net.minecraft.entity.player.EntityPlayer
+
+/**
+ * The server's view of one player's energy use, server-to-client, in answer to a MusePacketEnergyTelemetryRequest:
+ * the total drained in each of the last EnergyTelemetry.HISTORY ticks, newest first, and the same series for each
+ * of the heaviest few sources. Sources go by module name, since module ordinals can differ between client and server.
+ */
+object MusePacketEnergyTelemetry extends MusePackager {
+  /**
+   * Stands in for a module name for energy that wasn't attributed to any module
+   */
+  final val UNATTRIBUTED: String = "*"
+
+  /**
+   * How many sources get their own series; everything else is only in the total
+   */
+  final val MAX_SOURCES: Int = 3
+
+  /**
+   * The most recent snapshot the client has received, or null before the first one arrives
+   */
+  @volatile var latest: MusePacketEnergyTelemetry = null
+
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    val history = d.readUnsignedByte
+    val drained = readSeries(d, history)
+    val sources = new Array[String](d.readUnsignedByte)
+    val sourceDrained = new Array[Array[Double]](sources.length)
+    for (i <- 0 until sources.length) {
+      sources(i) = readString(d)
+      sourceDrained(i) = readSeries(d, history)
+    }
+    new MusePacketEnergyTelemetry(p, drained, sources, sourceDrained)
+  }
+
+  protected def readSeries(d: DataInputStream, history: Int): Array[Double] = {
+    val series = new Array[Double](history)
+    for (i <- 0 until history) {
+      series(i) = d.readFloat
+    }
+    series
+  }
+
+  def forPlayer(player: EntityPlayer): MusePacketEnergyTelemetry = {
+    val telemetry = ElectricItemUtils.getEnergyPool(player).telemetry
+    telemetry.advanceTo(player.worldObj.getTotalWorldTime)
+    val history = EnergyTelemetry.HISTORY
+    val drained = Array.tabulate(history)(telemetry.getTotalDrained)
+    val top = telemetry.getTopSources(MAX_SOURCES)
+    val sources = top.map(source => if (source == telemetry.unattributed) UNATTRIBUTED else ModuleManager.getModule(source).getDataName)
+    val sourceDrained = top.map(source => Array.tabulate(history)(ago => telemetry.getDrained(source, ago)))
+    new MusePacketEnergyTelemetry(player, drained, sources, sourceDrained)
+  }
+}
+
+/**
+ * @param drained       total drained per tick, newest first
+ * @param sources       data names of the heaviest sources, heaviest first; UNATTRIBUTED for energy not attributed to
+ *                      a module
+ * @param sourceDrained sourceDrained(i) is the per-tick series for sources(i), in the same order as drained
+ */
+class MusePacketEnergyTelemetry(player: EntityPlayer, val drained: Array[Double], val sources: Array[String],
+                                val sourceDrained: Array[Array[Double]]) extends MusePacket {
+  val packager = MusePacketEnergyTelemetry
+
+  def write {
+    dataout.writeByte(drained.length)
+    writeSeries(drained)
+    dataout.writeByte(sources.length)
+    for (i <- 0 until sources.length) {
+      writeString(sources(i))
+      writeSeries(sourceDrained(i))
+    }
+  }
+
+  protected def writeSeries(series: Array[Double]) {
+    for (amount <- series) {
+      dataout.writeFloat(amount.toFloat)
+    }
+  }
+
+  /**
+   * @return the localized name of source i, or "Other" for unattributed energy
+   */
+  def getSourceName(i: Int): String = {
+    if (sources(i) == MusePacketEnergyTelemetry.UNATTRIBUTED) {
+      "Other"
+    } else {
+      val module = ModuleManager.getModule(sources(i))
+      if (module == null) sources(i) else module.getLocalizedName
+    }
+  }
+
+  @SideOnly(Side.CLIENT)
+  override def handleClient(player: EntityClientPlayerMP) {
+    MusePacketEnergyTelemetry.latest = this
+  }
+}
@@ -0,0 +1,27 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import net.machinemuse.numina.network.{MusePackager, MusePacket, PacketSender}
+import net.minecraft.entity.player.{EntityPlayer, EntityPlayerMP}
+
+/**
+ * Asks the server for a snapshot of the sender's energy telemetry. Sent every so often by the tinker table's energy
+ * graph while it is open, since most drains only happen on the server.
+ */
+object MusePacketEnergyTelemetryRequest extends MusePackager {
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    new MusePacketEnergyTelemetryRequest(p)
+  }
+}
+
+class MusePacketEnergyTelemetryRequest(player: EntityPlayer) extends MusePacket {
+  val packager = MusePacketEnergyTelemetryRequest
+
+  def write {
+  }
+
+  override def handleServer(player: EntityPlayerMP) {
+    PacketSender.sendTo(MusePacketEnergyTelemetry.forPlayer(player), player)
+  }
+}
@@ -15,7 +15,7 @@ import net.minecraft.util.ChatComponentText
 
 /**
  * Packet for requesting to purchase an upgrade. Player-to-server. Server decides whether it is a valid upgrade or not and replies with an associated
- * inventoryrefresh packet.
+ * inventory refresh batch.
  *
  * Author: MachineMuse (Claire Semple)
  * Created: 10:16 AM, 01/05/13
@@ -58,11 +58,8 @@ class MusePacketInstallModuleRequest(player: EntityPlayer, itemSlot: Int, module
           slotsToUpdate = MuseItemUtils.deleteFromInventory(cost, inventory)
         }
         slotsToUpdate.add(itemSlot)
-        import scala.collection.JavaConversions._
-        for (slotiter <- slotsToUpdate) {
-          val reply: MusePacket = new MusePacketInventoryRefresh(playerEntity, slotiter, inventory.getStackInSlot(slotiter))
-          PacketSender.sendTo(reply, playerEntity)
-        }
+        val reply: MusePacket = MusePacketInventoryRefreshBatch.forSlots(playerEntity, new java.util.LinkedHashSet[Integer](slotsToUpdate))
+        PacketSender.sendTo(reply, playerEntity)
       }
     }
   }
@@ -0,0 +1,60 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import cpw.mods.fml.relauncher.{Side, SideOnly}
+import net.machinemuse.general.gui.MuseGui
+import net.machinemuse.numina.network.{MusePackager, MusePacket}
+import net.machinemuse.numina.scala.OptionCast
+import net.minecraft.client.Minecraft
+import net.minecraft.client.entity.EntityClientPlayerMP
+import net.minecraft.entity.player.EntityPlayer
+import net.minecraft.inventory.IInventory
+import net.minecraft.item.ItemStack
+
+/**
+ * Several inventory slots' new contents at once, for server actions that touch more than one slot. The client
+ * applies them all and then refreshes the GUI once.
+ */
+object MusePacketInventoryRefreshBatch extends MusePackager {
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    val count = readInt(d)
+    val slots = new Array[Int](count)
+    val stacks = new Array[ItemStack](count)
+    for (i <- 0 until count) {
+      slots(i) = readInt(d)
+      stacks(i) = readItemStack(d)
+    }
+    new MusePacketInventoryRefreshBatch(p, slots, stacks)
+  }
+
+  /**
+   * Builds a batch of the current contents of the given slots.
+   */
+  def forSlots(player: EntityPlayer, slots: java.util.Collection[Integer]): MusePacketInventoryRefreshBatch = {
+    import scala.collection.JavaConversions._
+    val slotArray = slots.map(_.intValue).toArray
+    new MusePacketInventoryRefreshBatch(player, slotArray, slotArray.map(player.inventory.getStackInSlot))
+  }
+}
+
+class MusePacketInventoryRefreshBatch(player: EntityPlayer, slots: Array[Int], stacks: Array[ItemStack]) extends MusePacket {
+  val packager = MusePacketInventoryRefreshBatch
+
+  def write {
+    writeInt(slots.length)
+    for (i <- 0 until slots.length) {
+      writeInt(slots(i))
+      writeItemStack(stacks(i))
+    }
+  }
+
+  @SideOnly(Side.CLIENT)
+  override def handleClient(player: EntityClientPlayerMP) {
+    val inventory: IInventory = player.inventory
+    for (i <- 0 until slots.length) {
+      inventory.setInventorySlotContents(slots(i), stacks(i))
+    }
+    OptionCast[MuseGui](Minecraft.getMinecraft.currentScreen) map (s => s.refresh())
+  }
+}
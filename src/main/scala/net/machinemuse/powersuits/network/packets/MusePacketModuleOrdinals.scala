@@ -0,0 +1,65 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import cpw.mods.fml.relauncher.{Side, SideOnly}
+import net.machinemuse.api.ModuleManager
+import net.machinemuse.numina.network.{MusePackager, MusePacket}
+import net.minecraft.client.entity.EntityClientPlayerMP
+import net.minecraft.entity.player.EntityPlayer
+
+/**
+ * The server's module names in ordinal order, sent to each player as they log in. Ordinals follow registration
+ * order, which depends on each side's own config (some modules are only registered if enabled), so a client must
+ * translate through this table before putting an ordinal in a packet for the server.
+ */
+object MusePacketModuleOrdinals extends MusePackager {
+  /**
+   * Module name to the server's ordinal for it, as last received; empty when not connected
+   */
+  @volatile protected var serverOrdinals: java.util.Map[String, Integer] = java.util.Collections.emptyMap()
+
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    val names = new Array[String](d.readShort)
+    for (i <- 0 until names.length) {
+      names(i) = readString(d)
+    }
+    new MusePacketModuleOrdinals(p, names)
+  }
+
+  def forServer(player: EntityPlayer): MusePacketModuleOrdinals = {
+    new MusePacketModuleOrdinals(player, ModuleManager.getModuleArray.map(_.getDataName))
+  }
+
+  /**
+   * @return the server's ordinal for the module, or -1 if the server doesn't have it or hasn't said yet
+   */
+  def getServerOrdinal(moduleName: String): Int = {
+    val ordinal = serverOrdinals.get(moduleName)
+    if (ordinal == null) -1 else ordinal.intValue
+  }
+
+  def forget() {
+    serverOrdinals = java.util.Collections.emptyMap()
+  }
+}
+
+class MusePacketModuleOrdinals(player: EntityPlayer, names: Array[String]) extends MusePacket {
+  val packager = MusePacketModuleOrdinals
+
+  def write {
+    dataout.writeShort(names.length)
+    for (name <- names) {
+      writeString(name)
+    }
+  }
+
+  @SideOnly(Side.CLIENT)
+  override def handleClient(player: EntityClientPlayerMP) {
+    val ordinals = new java.util.HashMap[String, Integer]
+    for (i <- 0 until names.length) {
+      ordinals.put(names(i), i)
+    }
+    MusePacketModuleOrdinals.serverOrdinals = ordinals
+  }
+}
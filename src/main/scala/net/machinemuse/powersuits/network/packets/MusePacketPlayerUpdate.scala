@@ -10,30 +10,66 @@ import net.minecraft.entity.player.{EntityPlayer, EntityPlayerMP}
 /**
  * Author: MachineMuse (Claire Semple)
  * Created: 12:28 PM, 5/6/13
+ *
+ * Starts with a byte of PlayerInputMap field bits saying which fields follow. Clients only send the fields that
+ * changed since their last packet, and the server knows who sent it from the connection. When the server passes it
+ * on, it sets RELAYED, adds the player's entity id and sends every field, since the receivers may not have seen the
+ * earlier packets. Only clients honour RELAYED; the server ignores any packet carrying it, so nobody can set another
+ * player's input.
  */
 object MusePacketPlayerUpdate extends MusePackager {
   def read(d: DataInputStream, p: EntityPlayer) = {
-    val username = readString(d)
-    val inputMap: PlayerInputMap = PlayerInputMap.getInputMapFor(username)
-    inputMap.readFromStream(d)
-    new MusePacketPlayerUpdate(p, inputMap)
+    val header = d.readUnsignedByte
+    val fields = header & PlayerInputMap.ALL_FIELDS
+    val relayed = (header & PlayerInputMap.RELAYED) != 0
+    val player = if (relayed) {
+      val entityId = d.readInt
+      p.worldObj.getEntityByID(entityId) match {
+        // Relayed updates only ever come from the server, so one arriving there is refused. On the client our own
+        // input is already known, so only other players' is taken from the server.
+        case other: EntityPlayer if p.worldObj.isRemote && (other ne p) => other
+        case _ => null
+      }
+    } else {
+      p
+    }
+    // Applied to a copy, which then replaces the player's map whole, so nobody reading it sees a half-done update.
+    // The fields are still read when the player isn't known, to keep the stream in step.
+    val inputMap: PlayerInputMap = if (player != null) new PlayerInputMap(PlayerInputMap.getInputMapFor(player)) else new PlayerInputMap
+    inputMap.readFromStream(d, fields)
+    if (player != null) {
+      PlayerInputMap.publish(player, inputMap)
+    }
+    new MusePacketPlayerUpdate(player, inputMap, fields, relayed)
   }
 }
 
-class MusePacketPlayerUpdate(player: EntityPlayer, inputMap: PlayerInputMap) extends MusePacket {
+class MusePacketPlayerUpdate(player: EntityPlayer, inputMap: PlayerInputMap, fields: Int, relayed: Boolean) extends MusePacket {
   val packager = MusePacketPlayerUpdate
+  // Copied up front so later changes to the map can't leak into a packet that hasn't been written yet
+  protected val state = new PlayerInputMap(inputMap)
+
+  /**
+   * A client's update to the server, carrying the given fields
+   */
+  def this(player: EntityPlayer, inputMap: PlayerInputMap, fields: Int) = this(player, inputMap, fields, false)
 
   def write {
-    writeString(player.getCommandSenderName)
-    inputMap.writeToStream(dataout)
+    dataout.writeByte(fields | (if (relayed) PlayerInputMap.RELAYED else 0))
+    if (relayed) {
+      dataout.writeInt(player.getEntityId)
+    }
+    state.writeToStream(dataout, fields)
   }
 
   override def handleServer(player: EntityPlayerMP) {
-    val updatePacket: MusePacketPlayerUpdate = new MusePacketPlayerUpdate(player, inputMap)
+    // A client claiming to relay someone else's input; read already refused to apply it
+    if (relayed) return
+    val updatePacket: MusePacketPlayerUpdate = new MusePacketPlayerUpdate(player, inputMap, PlayerInputMap.ALL_FIELDS, true)
     player.motionX = inputMap.motionX
     player.motionY = inputMap.motionY
     player.motionZ = inputMap.motionZ
     PacketSender.sendToAllAround(updatePacket, player, 128)
   }
 
-}
\ No newline at end of file
+}
@@ -1,46 +1,189 @@
 package net.machinemuse.powersuits.network.packets
 
-import java.io.DataInputStream
+import java.io.{ByteArrayOutputStream, DataInputStream, DataOutputStream}
+import java.util.zip.{CRC32, DeflaterOutputStream, InflaterInputStream}
 
 import cpw.mods.fml.relauncher.{Side, SideOnly}
-import net.machinemuse.api.ModuleManager
+import net.machinemuse.api.{IPowerModule, IPropertyModifier, ModuleManager}
 import net.machinemuse.numina.network.{MusePackager, MusePacket}
+import net.machinemuse.powersuits.common.PropertyModifierConfigCache
 import net.machinemuse.powersuits.powermodule.{PowerModuleBase, PropertyModifierFlatAdditive, PropertyModifierLinearAdditive}
 import net.minecraft.client.entity.EntityClientPlayerMP
 import net.minecraft.entity.player.EntityPlayer
 
+import scala.collection.JavaConverters._
+
 /**
  * Author: MachineMuse (Claire Semple)
  * Created: 7:23 PM, 12/05/13
+ *
+ * The server's module settings, or the part of them the client doesn't already have. Sent in answer to a
+ * MusePacketPropertyModifierConfigRequest: a hash of the server's whole configuration, then a deflated list of the
+ * modules whose settings differ from what the client reported.
  */
 object MusePacketPropertyModifierConfig extends MusePackager {
   def read(d: DataInputStream, p: EntityPlayer) = {
     new MusePacketPropertyModifierConfig(p, d)
   }
+
+  def modifierValue(propmod: IPropertyModifier): Double = propmod match {
+    case x: PropertyModifierFlatAdditive => x.valueAdded
+    case x: PropertyModifierLinearAdditive => x.multiplier
+    case _ => 0
+  }
+
+  /**
+   * Writes one module's allowed flag and modifier values. Properties go in name order, so the same settings always
+   * give the same bytes and the same hash.
+   */
+  def writeModule(out: DataOutputStream, module: IPowerModule) {
+    val modifiers = module.getPropertyModifiers
+    out.writeUTF(module.getDataName)
+    out.writeBoolean(module.isAllowed)
+    out.writeInt(modifiers.size)
+    for (propname <- modifiers.keySet.asScala.toSeq.sorted) {
+      val propmodlist = modifiers.get(propname)
+      out.writeUTF(propname)
+      out.writeInt(propmodlist.size)
+      for (propmod <- propmodlist.asScala) {
+        out.writeDouble(modifierValue(propmod))
+      }
+    }
+  }
+
+  /**
+   * Reads one module written by writeModule and applies it. Modules and properties this side doesn't have are
+   * read and skipped.
+   */
+  def readModule(in: DataInputStream) {
+    val module = ModuleManager.getModule(in.readUTF)
+    val allowed = in.readBoolean
+    module match {
+      case m: PowerModuleBase => m setIsAllowed allowed
+      case _ =>
+    }
+    val numProps = in.readInt
+    for (_ <- 0 until numProps) {
+      val propName = in.readUTF
+      val numModifiers = in.readInt
+      val proplist = if (module == null) null else module.getPropertyModifiers.get(propName)
+      for (m <- 0 until numModifiers) {
+        val value = in.readDouble
+        if (proplist != null && m < proplist.size) {
+          proplist.get(m) match {
+            case x: PropertyModifierFlatAdditive => x.valueAdded = value
+            case x: PropertyModifierLinearAdditive => x.multiplier = value
+            case _ =>
+          }
+        }
+      }
+    }
+  }
+
+  def moduleBytes(module: IPowerModule): Array[Byte] = {
+    val bytes = new ByteArrayOutputStream
+    writeModule(new DataOutputStream(bytes), module)
+    bytes.toByteArray
+  }
+
+  /**
+   * configHash and every module's hash, the latter indexed by module ordinal
+   */
+  protected class Hashes(val config: Int, val modules: Array[Int])
+
+  /**
+   * Worked out once the registry is frozen, and again whenever readModules changes the settings, so logins and
+   * config requests don't re-serialize every module.
+   */
+  @volatile protected var hashes: Hashes = null
+
+  def computeHashes() {
+    val modules = ModuleManager.getModuleArray
+    val bytes = modules.map(moduleBytes)
+    val moduleHashes = bytes.map(crcOf)
+    // Independent of the order the modules were registered in
+    val crc = new CRC32
+    for (i <- modules.indices.sortBy(modules(_).getDataName)) {
+      crc.update(bytes(i))
+    }
+    hashes = new Hashes(crc.getValue.toInt, moduleHashes)
+  }
+
+  protected def currentHashes: Hashes = {
+    if (hashes == null) {
+      computeHashes()
+    }
+    hashes
+  }
+
+  protected def crcOf(bytes: Array[Byte]): Int = {
+    val crc = new CRC32
+    crc.update(bytes)
+    crc.getValue.toInt
+  }
+
+  def moduleHash(module: IPowerModule): Int = {
+    val ordinal = ModuleManager.getModuleOrdinal(module.getDataName)
+    val h = currentHashes
+    if (ordinal >= 0 && ordinal < h.modules.length) h.modules(ordinal) else crcOf(moduleBytes(module))
+  }
+
+  /**
+   * A hash of every module's settings
+   */
+  def configHash: Int = currentHashes.config
+
+  /**
+   * Every module's settings, as stored in the client's cache
+   */
+  def allModuleBytes: Array[Byte] = {
+    val bytes = new ByteArrayOutputStream
+    val out = new DataOutputStream(bytes)
+    val modules = ModuleManager.getAllModules
+    out.writeInt(modules.size)
+    for (module <- modules.asScala) {
+      writeModule(out, module)
+    }
+    out.flush()
+    bytes.toByteArray
+  }
+
+  def readModules(in: DataInputStream) {
+    val numModules = in.readInt
+    for (_ <- 0 until numModules) {
+      readModule(in)
+    }
+    computeHashes()
+    ModuleManager.invalidatePropertyCache()
+  }
 }
 
 class MusePacketPropertyModifierConfig(player: EntityPlayer, data: DataInputStream) extends MusePacket {
   val packager = MusePacketPropertyModifierConfig
+  protected var hash: Int = 0
+  protected var modules: Seq[IPowerModule] = Seq.empty
+
+  /**
+   * @param hash    the server's configHash
+   * @param modules the modules the client needs
+   */
+  def this(player: EntityPlayer, hash: Int, modules: Seq[IPowerModule]) = {
+    this(player, null: DataInputStream)
+    this.hash = hash
+    this.modules = modules
+  }
 
   override def write {
-    import scala.collection.JavaConverters._
-    writeInt(ModuleManager.getAllModules.size())
-    for (module <- ModuleManager.getAllModules.asScala) {
-      writeString(module.getDataName)
-      writeBoolean(module.isAllowed)
-      writeInt(module.getPropertyModifiers.size())
-      for ((propname, propmodlist) <- module.getPropertyModifiers.asScala) {
-        writeString(propname)
-        writeInt(propmodlist.size)
-        for (propmod <- propmodlist.asScala) {
-          propmod match {
-            case x: PropertyModifierFlatAdditive => writeDouble(x.valueAdded)
-            case x: PropertyModifierLinearAdditive => writeDouble(x.multiplier)
-            case _ => writeDouble(0)
-          }
-        }
-      }
+    val compressed = new ByteArrayOutputStream
+    val out = new DataOutputStream(new DeflaterOutputStream(compressed))
+    out.writeInt(modules.size)
+    for (module <- modules) {
+      MusePacketPropertyModifierConfig.writeModule(out, module)
     }
+    out.close()
+    writeInt(hash)
+    writeInt(compressed.size)
+    dataout.write(compressed.toByteArray)
   }
 
   /**
@@ -51,27 +194,14 @@ class MusePacketPropertyModifierConfig(player: EntityPlayer, data: DataInputStre
   @SideOnly(Side.CLIENT)
   override def handleClient(player: EntityClientPlayerMP) {
     val d = MusePacketPropertyModifierConfig
-    val numModules = d readInt data
-    for (_ <- 0 until numModules) {
-      val moduleName = d readString data
-      val allowed = d readBoolean data
-      val module = ModuleManager.getModule(moduleName)
-      if (module.isInstanceOf[PowerModuleBase]) module.asInstanceOf[PowerModuleBase] setIsAllowed allowed
-      val numProps = d readInt data
-      for (_ <- 0 until numProps) {
-        val propName = d readString data
-        val numModifiers = d readInt data
-        val proplist = module.getPropertyModifiers.get(propName)
-        for (m <- 0 until numModifiers) {
-          proplist.get(m) match {
-            case x: PropertyModifierFlatAdditive => x.valueAdded = d readDouble data
-            case x: PropertyModifierLinearAdditive => x.multiplier = d readDouble data
-            case _ => d readDouble data
-          }
-        }
-      }
+    val serverHash = d readInt data
+    val compressed = new Array[Byte](d readInt data)
+    data.readFully(compressed)
+    d.readModules(new DataInputStream(new InflaterInputStream(new java.io.ByteArrayInputStream(compressed))))
+    // Only worth keeping if we now match the server exactly
+    if (d.configHash == serverHash) {
+      PropertyModifierConfigCache.save(serverHash, d.allModuleBytes)
     }
-
   }
 
 }
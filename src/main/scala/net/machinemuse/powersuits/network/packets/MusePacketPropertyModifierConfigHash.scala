@@ -0,0 +1,34 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import cpw.mods.fml.relauncher.{Side, SideOnly}
+import net.machinemuse.numina.network.{MusePackager, MusePacket, PacketSender}
+import net.machinemuse.powersuits.common.PropertyModifierConfigCache
+import net.minecraft.client.entity.EntityClientPlayerMP
+import net.minecraft.entity.player.EntityPlayer
+
+/**
+ * Sent to each player as they log in: just the hash of the server's module settings. If the client has those
+ * settings cached from an earlier visit it uses them; otherwise it asks for what it's missing.
+ */
+object MusePacketPropertyModifierConfigHash extends MusePackager {
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    new MusePacketPropertyModifierConfigHash(p, readInt(d))
+  }
+}
+
+class MusePacketPropertyModifierConfigHash(player: EntityPlayer, hash: Int) extends MusePacket {
+  val packager = MusePacketPropertyModifierConfigHash
+
+  def write {
+    writeInt(hash)
+  }
+
+  @SideOnly(Side.CLIENT)
+  override def handleClient(player: EntityClientPlayerMP) {
+    if (!PropertyModifierConfigCache.load(hash)) {
+      PacketSender.sendToServer(MusePacketPropertyModifierConfigRequest.forCurrentConfig(player))
+    }
+  }
+}
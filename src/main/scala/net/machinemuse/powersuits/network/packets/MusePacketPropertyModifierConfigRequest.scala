@@ -0,0 +1,58 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import net.machinemuse.api.ModuleManager
+import net.machinemuse.numina.network.{MusePackager, MusePacket, PacketSender}
+import net.minecraft.entity.player.{EntityPlayer, EntityPlayerMP}
+
+import scala.collection.JavaConverters._
+
+/**
+ * The client's answer to a config hash it didn't have cached: a (name hash, settings hash) pair for every module
+ * it knows, so the server can send only the modules whose settings differ.
+ */
+object MusePacketPropertyModifierConfigRequest extends MusePackager {
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    val count = readInt(d)
+    val nameHashes = new Array[Int](count)
+    val settingsHashes = new Array[Int](count)
+    for (i <- 0 until count) {
+      nameHashes(i) = readInt(d)
+      settingsHashes(i) = readInt(d)
+    }
+    new MusePacketPropertyModifierConfigRequest(p, nameHashes, settingsHashes)
+  }
+
+  def forCurrentConfig(player: EntityPlayer): MusePacketPropertyModifierConfigRequest = {
+    val modules = ModuleManager.getAllModules.asScala
+    new MusePacketPropertyModifierConfigRequest(player,
+      modules.map(_.getDataName.hashCode).toArray,
+      modules.map(MusePacketPropertyModifierConfig.moduleHash).toArray)
+  }
+}
+
+class MusePacketPropertyModifierConfigRequest(player: EntityPlayer, nameHashes: Array[Int], settingsHashes: Array[Int]) extends MusePacket {
+  val packager = MusePacketPropertyModifierConfigRequest
+
+  def write {
+    writeInt(nameHashes.length)
+    for (i <- 0 until nameHashes.length) {
+      writeInt(nameHashes(i))
+      writeInt(settingsHashes(i))
+    }
+  }
+
+  override def handleServer(player: EntityPlayerMP) {
+    val known = new java.util.HashMap[Integer, Integer]
+    for (i <- 0 until nameHashes.length) {
+      known.put(nameHashes(i), settingsHashes(i))
+    }
+    // Anything the client didn't mention, or has different settings for, goes back in full
+    val differing = ModuleManager.getAllModules.asScala.filter { module =>
+      val theirs = known.get(module.getDataName.hashCode)
+      theirs == null || theirs.intValue != MusePacketPropertyModifierConfig.moduleHash(module)
+    }
+    PacketSender.sendTo(new MusePacketPropertyModifierConfig(player, MusePacketPropertyModifierConfig.configHash, differing), player)
+  }
+}
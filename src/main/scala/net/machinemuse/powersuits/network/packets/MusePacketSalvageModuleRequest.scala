@@ -10,13 +10,13 @@ import net.machinemuse.api.{IPowerModule, ModuleManager}
 import net.machinemuse.numina.network.{PacketSender, MusePackager, MusePacket}
 import net.machinemuse.powersuits.common.Config
 import net.machinemuse.utils.MuseItemUtils
-import net.minecraft.entity.player.{EntityPlayer, EntityPlayerMP, InventoryPlayer}
+import net.minecraft.entity.player.{EntityPlayer, EntityPlayerMP}
 import net.minecraft.item.ItemStack
 
 /**
  * Packet for requesting to purchase an upgrade. Player-to-server. Server
  * decides whether it is a valid upgrade or not and replies with an associated
- * inventoryrefresh packet.
+ * inventory refresh batch.
  *
  * Author: MachineMuse (Claire Semple)
  * Created: 12:28 PM, 5/6/13
@@ -40,7 +40,6 @@ class MusePacketSalvageModuleRequest(player: EntityPlayer, itemSlot: Int, module
 
   override def handleServer(playerEntity: EntityPlayerMP) {
     if (moduleName != null) {
-      val inventory: InventoryPlayer = playerEntity.inventory
       val stack = playerEntity.inventory.getStackInSlot(itemSlot)
       val moduleType: IPowerModule = ModuleManager.getModule(moduleName)
       val refund: List[ItemStack] = moduleType.getInstallCost
@@ -52,10 +51,8 @@ class MusePacketSalvageModuleRequest(player: EntityPlayer, itemSlot: Int, module
           slots.addAll(MuseItemUtils.giveOrDropItemWithChance(refundItem.copy, playerEntity, Config.getSalvageChance))
         }
         slots.add(itemSlot)
-        for (slotiter <- slots) {
-          val reply: MusePacket = new MusePacketInventoryRefresh(player, slotiter, inventory.getStackInSlot(slotiter))
-          PacketSender.sendTo(reply, playerEntity)
-        }
+        val reply: MusePacket = MusePacketInventoryRefreshBatch.forSlots(playerEntity, slots)
+        PacketSender.sendTo(reply, playerEntity)
       }
     }
   }
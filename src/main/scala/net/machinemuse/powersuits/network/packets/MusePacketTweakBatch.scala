@@ -0,0 +1,119 @@
+package net.machinemuse.powersuits.network.packets
+
+import java.io.DataInputStream
+
+import net.machinemuse.api.{IPowerModule, ModuleManager}
+import net.machinemuse.numina.general.MuseMathUtils
+import net.machinemuse.numina.network.{MusePackager, MusePacket}
+import net.machinemuse.powersuits.powermodule.PropertyModifierLinearAdditive
+import net.machinemuse.utils.MuseItemUtils
+import net.minecraft.entity.player.{EntityPlayer, EntityPlayerMP}
+import net.minecraft.nbt.NBTTagCompound
+
+import scala.collection.JavaConverters._
+
+/**
+ * Several tweak values at once, player-to-server. Replaces MusePacketTweakRequest for the tinker table: instead of
+ * the module and tweak names, each entry carries the module's ordinal on the server, as told to the client by
+ * MusePacketModuleOrdinals, and the tweak's position in that module's sorted list of tweak names.
+ */
+object MusePacketTweakBatch extends MusePackager {
+  /**
+   * Each module's tweak names in sorted order, indexed by module ordinal. Built on first use, after the registry
+   * is frozen; config sync only changes modifier values, never which tweaks a module has.
+   */
+  @volatile protected var tweakTables: Array[Array[String]] = null
+
+  def read(d: DataInputStream, p: EntityPlayer) = {
+    val count = d.readShort
+    val slots = new Array[Int](count)
+    val modules = new Array[Int](count)
+    val tweaks = new Array[Int](count)
+    val values = new Array[Double](count)
+    for (i <- 0 until count) {
+      slots(i) = d.readUnsignedByte
+      modules(i) = d.readShort
+      tweaks(i) = d.readUnsignedByte
+      values(i) = d.readDouble
+    }
+    new MusePacketTweakBatch(p, slots, modules, tweaks, values)
+  }
+
+  protected def tweakNames(module: IPowerModule): Array[String] = {
+    module.getPropertyModifiers.values.asScala.flatMap(_.asScala).collect {
+      case x: PropertyModifierLinearAdditive => x.getTradeoffName
+    }.toArray.distinct.sorted
+  }
+
+  def getTweakNames(moduleOrdinal: Int): Array[String] = {
+    var tables = tweakTables
+    if (tables == null) {
+      tables = ModuleManager.getModuleArray.map(tweakNames)
+      tweakTables = tables
+    }
+    if (moduleOrdinal >= 0 && moduleOrdinal < tables.length) tables(moduleOrdinal) else Array.empty
+  }
+
+  /**
+   * @return the tweak's ordinal within the module, or -1 if the module doesn't have it
+   */
+  def getTweakOrdinal(moduleName: String, tweakName: String): Int = {
+    getTweakNames(ModuleManager.getModuleOrdinal(moduleName)).indexOf(tweakName)
+  }
+
+  /**
+   * Packs a (slot, server module ordinal, tweak) triple into one key, so a client can keep only the latest value
+   * for each
+   */
+  def key(slot: Int, moduleOrdinal: Int, tweakOrdinal: Int): Long = (slot.toLong << 32) | (moduleOrdinal.toLong << 8) | tweakOrdinal
+
+  /**
+   * Builds a batch from values keyed by key(). Iterates the map once, in its own order.
+   */
+  def forTweaks(player: EntityPlayer, pending: java.util.Map[java.lang.Long, java.lang.Double]): MusePacketTweakBatch = {
+    val count = pending.size
+    val slots = new Array[Int](count)
+    val modules = new Array[Int](count)
+    val tweaks = new Array[Int](count)
+    val values = new Array[Double](count)
+    var i = 0
+    for (entry <- pending.entrySet.asScala) {
+      val k: Long = entry.getKey.longValue
+      slots(i) = (k >>> 32).toInt
+      modules(i) = ((k >>> 8) & 0xFFFFFF).toInt
+      tweaks(i) = (k & 0xFF).toInt
+      values(i) = entry.getValue.doubleValue
+      i += 1
+    }
+    new MusePacketTweakBatch(player, slots, modules, tweaks, values)
+  }
+}
+
+class MusePacketTweakBatch(player: EntityPlayer, slots: Array[Int], modules: Array[Int], tweaks: Array[Int], values: Array[Double]) extends MusePacket {
+  val packager = MusePacketTweakBatch
+
+  def write {
+    dataout.writeShort(slots.length)
+    for (i <- 0 until slots.length) {
+      dataout.writeByte(slots(i))
+      dataout.writeShort(modules(i))
+      dataout.writeByte(tweaks(i))
+      dataout.writeDouble(values(i))
+    }
+  }
+
+  override def handleServer(playerEntity: EntityPlayerMP) {
+    val inventory = playerEntity.inventory
+    for (i <- 0 until slots.length) {
+      val names = MusePacketTweakBatch.getTweakNames(modules(i))
+      if (slots(i) < inventory.getSizeInventory && tweaks(i) < names.length) {
+        val moduleName = ModuleManager.getModule(modules(i)).getDataName
+        val itemTag: NBTTagCompound = MuseItemUtils.getMuseItemTag(inventory.getStackInSlot(slots(i)))
+        if (itemTag != null && ModuleManager.tagHasModule(itemTag, moduleName)) {
+          itemTag.getCompoundTag(moduleName).setDouble(names(tweaks(i)), MuseMathUtils.clampDouble(values(i), 0, 1))
+          ModuleManager.invalidatePropertyCache(itemTag)
+        }
+      }
+    }
+  }
+}
@@ -17,6 +17,8 @@ import net.minecraft.nbt.NBTTagCompound
  * decides whether it is a valid upgrade or not and <strike>replies with an associated
  * inventoryrefresh packet</strike>.
  *
+ * The tinker table now sends MusePacketTweakBatch instead; this stays registered for anything still sending it.
+ *
  * Author: MachineMuse (Claire Semple)
  * Created: 12:28 PM, 5/6/13
  */
@@ -47,6 +49,7 @@ class MusePacketTweakRequest(player: EntityPlayer, itemSlot: Int, moduleName: St
       if (itemTag != null && ModuleManager.tagHasModule(itemTag, moduleName)) {
         val moduleTag: NBTTagCompound = itemTag.getCompoundTag(moduleName)
         moduleTag.setDouble(tweakName, MuseMathUtils.clampDouble(tweakValue, 0, 1))
+        ModuleManager.invalidatePropertyCache(itemTag)
       }
     }
   }
@@ -0,0 +1,159 @@
+package net.machinemuse.powersuits.powermodule;
+
+import net.machinemuse.api.IPropertyModifier;
+import net.machinemuse.api.PropertyKey;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One module's property modifiers, folded into primitive arrays.
+ * <p>
+ * A property whose chain only has flat and linear additive modifiers reduces
+ * to base + sum(multiplier * tweak), so it is stored as a base value and a run
+ * of (tweak, multiplier) terms. Tweaks are read from the module tag once per
+ * evaluation no matter how many properties use them. Any property with
+ * another kind of modifier keeps its chain and is evaluated the generic way.
+ */
+public class CompiledModuleProperties {
+    protected final String[] tweakNames;
+
+    protected final int[] linearKeys;
+    protected final double[] linearBase;
+    /**
+     * Terms of linearKeys[i] are termTweak/termMultiplier[termStart[i] until termStart[i + 1]]
+     */
+    protected final int[] termStart;
+    protected final int[] termTweak;
+    protected final double[] termMultiplier;
+
+    protected final int[] genericKeys;
+    protected final IPropertyModifier[][] genericModifiers;
+
+    protected CompiledModuleProperties(String[] tweakNames, int[] linearKeys, double[] linearBase, int[] termStart, int[] termTweak,
+                                       double[] termMultiplier, int[] genericKeys, IPropertyModifier[][] genericModifiers) {
+        this.tweakNames = tweakNames;
+        this.linearKeys = linearKeys;
+        this.linearBase = linearBase;
+        this.termStart = termStart;
+        this.termTweak = termTweak;
+        this.termMultiplier = termMultiplier;
+        this.genericKeys = genericKeys;
+        this.genericModifiers = genericModifiers;
+    }
+
+    public static CompiledModuleProperties compile(Map<String, List<IPropertyModifier>> propertyModifiers) {
+        List<String> tweaks = new ArrayList<String>();
+        List<Integer> linKeys = new ArrayList<Integer>();
+        List<Double> linBase = new ArrayList<Double>();
+        List<Integer> starts = new ArrayList<Integer>();
+        List<Integer> termTweaks = new ArrayList<Integer>();
+        List<Double> termMults = new ArrayList<Double>();
+        List<Integer> genKeys = new ArrayList<Integer>();
+        List<IPropertyModifier[]> genMods = new ArrayList<IPropertyModifier[]>();
+
+        for (Map.Entry<String, List<IPropertyModifier>> entry : propertyModifiers.entrySet()) {
+            int key = PropertyKey.get(entry.getKey()).index;
+            List<IPropertyModifier> chain = entry.getValue();
+            if (!isLinear(chain)) {
+                genKeys.add(key);
+                genMods.add(chain.toArray(new IPropertyModifier[chain.size()]));
+                continue;
+            }
+            double base = 0;
+            int start = termTweaks.size();
+            for (IPropertyModifier modifier : chain) {
+                if (modifier instanceof PropertyModifierFlatAdditive) {
+                    base += ((PropertyModifierFlatAdditive) modifier).valueAdded;
+                } else {
+                    PropertyModifierLinearAdditive linear = (PropertyModifierLinearAdditive) modifier;
+                    int tweak = tweaks.indexOf(linear.getTradeoffName());
+                    if (tweak < 0) {
+                        tweak = tweaks.size();
+                        tweaks.add(linear.getTradeoffName());
+                    }
+                    // Fold repeated terms on the same tweak into one coefficient
+                    int existing = termTweaks.subList(start, termTweaks.size()).indexOf(tweak);
+                    if (existing >= 0) {
+                        termMults.set(start + existing, termMults.get(start + existing) + linear.multiplier);
+                    } else {
+                        termTweaks.add(tweak);
+                        termMults.add(linear.multiplier);
+                    }
+                }
+            }
+            linKeys.add(key);
+            linBase.add(base);
+            starts.add(start);
+        }
+        starts.add(termTweaks.size());
+
+        return new CompiledModuleProperties(
+                tweaks.toArray(new String[tweaks.size()]),
+                toIntArray(linKeys), toDoubleArray(linBase), toIntArray(starts),
+                toIntArray(termTweaks), toDoubleArray(termMults),
+                toIntArray(genKeys), genMods.toArray(new IPropertyModifier[genMods.size()][]));
+    }
+
+    protected static boolean isLinear(List<IPropertyModifier> chain) {
+        for (IPropertyModifier modifier : chain) {
+            // Exact classes only; a subclass may override applyModifier
+            Class<?> type = modifier.getClass();
+            if (type != PropertyModifierFlatAdditive.class && type != PropertyModifierLinearAdditive.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds this module's contribution to every property it modifies.
+     *
+     * @param moduleTag the module's own tag inside the item tag
+     * @param values    compiled property table, indexed by PropertyKey
+     */
+    public void apply(NBTTagCompound moduleTag, double[] values) {
+        double[] tweakValues = new double[tweakNames.length];
+        for (int t = 0; t < tweakNames.length; t++) {
+            tweakValues[t] = moduleTag.getDouble(tweakNames[t]);
+        }
+        for (int i = 0; i < linearKeys.length; i++) {
+            int key = linearKeys[i];
+            if (key < values.length) {
+                double value = values[key] + linearBase[i];
+                for (int term = termStart[i]; term < termStart[i + 1]; term++) {
+                    value += termMultiplier[term] * tweakValues[termTweak[term]];
+                }
+                values[key] = value;
+            }
+        }
+        for (int i = 0; i < genericKeys.length; i++) {
+            int key = genericKeys[i];
+            if (key < values.length) {
+                double value = values[key];
+                for (IPropertyModifier modifier : genericModifiers[i]) {
+                    value = modifier.applyModifier(moduleTag, value);
+                }
+                values[key] = value;
+            }
+        }
+    }
+
+    protected static int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    protected static double[] toDoubleArray(List<Double> list) {
+        double[] array = new double[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,25 @@
+package net.machinemuse.powersuits.powermodule;
+
+import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.moduletrigger.IPlayerTickContextModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+
+import java.util.List;
+
+/**
+ * Base for built-in tick modules that work from a PlayerTickContext. PlayerUpdateHandler hands them its shared
+ * context; anyone still calling the plain overload gets a context built just for that call, which means a full
+ * inventory scan, so that path is for compatibility only.
+ */
+public abstract class PlayerTickContextModule extends PowerModuleBase implements IPlayerTickContextModule {
+    public PlayerTickContextModule(List<IModularItem> validItems) {
+        super(validItems);
+    }
+
+    @Override
+    public final void onPlayerTickActive(EntityPlayer player, ItemStack item) {
+        onPlayerTickActive(PlayerTickContext.build(player), item);
+    }
+}
@@ -3,6 +3,8 @@ package net.machinemuse.powersuits.powermodule;
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.IPowerModule;
 import net.machinemuse.api.IPropertyModifier;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.general.gui.MuseIcon;
 import net.machinemuse.numina.render.MuseTextureUtils;
 import net.machinemuse.powersuits.common.Config;
@@ -19,6 +21,8 @@ public abstract class PowerModuleBase implements IPowerModule {
     protected List<ItemStack> installCost;
     protected List<IModularItem> validItems;
     protected Map<String, List<IPropertyModifier>> propertyModifiers;
+    protected volatile CompiledModuleProperties compiledProperties;
+    protected volatile int compiledGeneration = -1;
     protected static Map<String, String> units = new HashMap<String, String>();
     protected NBTTagCompound defaultTag;
     protected boolean isAllowed;
@@ -89,6 +93,29 @@ public abstract class PowerModuleBase implements IPowerModule {
         return propertyValue;
     }
 
+    /**
+     * Applies every property modifier of this module to a compiled property table, indexed by PropertyKey.
+     * Assumes the module is installed in itemTag.
+     */
+    public void applyPropertyModifiers(NBTTagCompound itemTag, double[] values) {
+        getCompiledProperties().apply(itemTag.getCompoundTag(this.getDataName()), values);
+    }
+
+    /**
+     * Gets this module's modifiers folded into linear form, recompiling them if modifiers were added or their
+     * values were changed (e.g. by the server's config) since the last compile.
+     */
+    public CompiledModuleProperties getCompiledProperties() {
+        int generation = ModuleManager.getPropertyGeneration();
+        CompiledModuleProperties compiled = compiledProperties;
+        if (compiled == null || compiledGeneration != generation) {
+            compiled = CompiledModuleProperties.compile(propertyModifiers);
+            compiledProperties = compiled;
+            compiledGeneration = generation;
+        }
+        return compiled;
+    }
+
     @Override
     public NBTTagCompound getNewTag() {
         return (NBTTagCompound) defaultTag.copy();
@@ -123,6 +150,8 @@ public abstract class PowerModuleBase implements IPowerModule {
             propertyModifiers.put(propertyName, modifiers);
         }
         modifiers.add(modifier);
+        PropertyKey.get(propertyName);
+        ModuleManager.invalidatePropertyCache();
         return this;
     }
 
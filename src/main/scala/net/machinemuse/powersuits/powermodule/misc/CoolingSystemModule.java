@@ -2,13 +2,13 @@ package net.machinemuse.powersuits.powermodule.misc;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.PropertyKey;
+import net.machinemuse.api.moduletrigger.IPlayerTickIntervalModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
-import net.machinemuse.utils.MuseHeatUtils;
 import net.machinemuse.utils.MuseItemUtils;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Items;
@@ -18,10 +18,12 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class CoolingSystemModule extends PowerModuleBase implements IPlayerTickModule, IToggleableModule {
+public class CoolingSystemModule extends PlayerTickContextModule implements IPlayerTickIntervalModule, IToggleableModule {
     public static final String MODULE_COOLING_SYSTEM = "Cooling System";
     public static final String COOLING_BONUS = "Cooling Bonus";
     public static final String ENERGY = "Cooling System Energy Consumption";
+    protected static final PropertyKey[] COOLING_KEYS = {PropertyKey.get(COOLING_BONUS), PropertyKey.get(ENERGY)};
+    protected static final ThreadLocal<double[]> COOLING_SCRATCH = ModuleManager.propertyScratch(COOLING_KEYS.length);
 
     public CoolingSystemModule(List<IModularItem> validItems) {
         super(validItems);
@@ -57,11 +59,16 @@ public class CoolingSystemModule extends PowerModuleBase implements IPlayerTickM
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
-        double heatBefore = MuseHeatUtils.getPlayerHeat(player);
-        MuseHeatUtils.coolPlayer(player, 0.1 * ModuleManager.computeModularProperty(item, COOLING_BONUS));
-        double cooling = heatBefore - MuseHeatUtils.getPlayerHeat(player);
-        ElectricItemUtils.drainPlayerEnergy(player, cooling * ModuleManager.computeModularProperty(item, ENERGY));
+    public int getTickInterval() {
+        return 4;
+    }
+
+    @Override
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
+        double[] props = ModuleManager.computeModularProperties(item, COOLING_SCRATCH.get(), COOLING_KEYS);
+        double cooling = context.coolPlayer(0.1 * props[0] * getTickInterval());
+        context.drainEnergy(cooling * props[1]);
     }
 
     @Override
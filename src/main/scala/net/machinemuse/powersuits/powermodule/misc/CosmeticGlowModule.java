@@ -1,6 +1,8 @@
 package net.machinemuse.powersuits.powermodule.misc;
 
 import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.powersuits.powermodule.PowerModuleBase;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.minecraft.util.StatCollector;
@@ -12,6 +14,8 @@ public class CosmeticGlowModule extends PowerModuleBase {
     public static final String RED_GLOW = "Red Glow";
     public static final String GREEN_GLOW = "Green Glow";
     public static final String BLUE_GLOW = "Blue Glow";
+    public static final PropertyKey[] GLOW_KEYS = {PropertyKey.get(RED_GLOW), PropertyKey.get(GREEN_GLOW), PropertyKey.get(BLUE_GLOW)};
+    public static final ThreadLocal<double[]> GLOW_SCRATCH = ModuleManager.propertyScratch(GLOW_KEYS.length);
 
     public CosmeticGlowModule(List<IModularItem> validItems) {
         super(validItems);
@@ -1,11 +1,11 @@
 package net.machinemuse.powersuits.powermodule.misc;
 
 import net.machinemuse.api.IModularItem;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.moduletrigger.IPlayerTickIntervalModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.minecraft.entity.player.EntityPlayer;
@@ -16,7 +16,7 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class InvisibilityModule extends PowerModuleBase implements IPlayerTickModule, IToggleableModule {
+public class InvisibilityModule extends PlayerTickContextModule implements IPlayerTickIntervalModule, IToggleableModule {
     public static final String MODULE_ACTIVE_CAMOUFLAGE = "Active Camouflage";
 
     public InvisibilityModule(List<IModularItem> validItems) {
@@ -47,16 +47,21 @@ public class InvisibilityModule extends PowerModuleBase implements IPlayerTickMo
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
-        double totalEnergy = ElectricItemUtils.getPlayerEnergy(player);
+    public int getTickInterval() {
+        return 20;
+    }
+
+    @Override
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         PotionEffect invis = null;
         if (player.isPotionActive(Potion.invisibility.id)) {
             invis = player.getActivePotionEffect(Potion.invisibility);
         }
-        if (50 < totalEnergy) {
-            if (invis == null || invis.getDuration() < 210) {
+        boolean refresh = invis == null || invis.getDuration() < 210 + getTickInterval();
+        if (refresh ? context.tryDrain(50) : 50 < context.getEnergy()) {
+            if (refresh) {
                 player.addPotionEffect(new PotionEffect(Potion.invisibility.id, 500, -3));
-                ElectricItemUtils.drainPlayerEnergy(player, 50);
             }
         } else {
             onPlayerTickInactive(player, item);
@@ -1,11 +1,11 @@
 package net.machinemuse.powersuits.powermodule.misc;
 
 import net.machinemuse.api.IModularItem;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.moduletrigger.IPlayerTickIntervalModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.minecraft.entity.player.EntityPlayer;
@@ -16,7 +16,7 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class NightVisionModule extends PowerModuleBase implements IPlayerTickModule, IToggleableModule {
+public class NightVisionModule extends PlayerTickContextModule implements IPlayerTickIntervalModule, IToggleableModule {
     public static final String MODULE_NIGHT_VISION = "Night Vision";
 
     public NightVisionModule(List<IModularItem> validItems) {
@@ -46,16 +46,21 @@ public class NightVisionModule extends PowerModuleBase implements IPlayerTickMod
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
-        double totalEnergy = ElectricItemUtils.getPlayerEnergy(player);
+    public int getTickInterval() {
+        return 20;
+    }
+
+    @Override
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         PotionEffect nightVision = null;
         if (player.isPotionActive(Potion.nightVision.id)) {
             nightVision = player.getActivePotionEffect(Potion.nightVision);
         }
-        if (5 < totalEnergy) {
-            if (nightVision == null || nightVision.getDuration() < 210) {
+        boolean refresh = nightVision == null || nightVision.getDuration() < 210 + getTickInterval();
+        if (refresh ? context.tryDrain(5) : 5 < context.getEnergy()) {
+            if (refresh) {
                 player.addPotionEffect(new PotionEffect(Potion.nightVision.id, 500, -3));
-                ElectricItemUtils.drainPlayerEnergy(player, 5);
             }
         } else {
             onPlayerTickInactive(player, item);
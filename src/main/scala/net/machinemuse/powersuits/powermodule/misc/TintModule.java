@@ -1,6 +1,8 @@
 package net.machinemuse.powersuits.powermodule.misc;
 
 import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.powersuits.powermodule.PowerModuleBase;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.minecraft.util.StatCollector;
@@ -12,6 +14,8 @@ public class TintModule extends PowerModuleBase {
     public static final String RED_TINT = "Red Tint";
     public static final String GREEN_TINT = "Green Tint";
     public static final String BLUE_TINT = "Blue Tint";
+    public static final PropertyKey[] TINT_KEYS = {PropertyKey.get(RED_TINT), PropertyKey.get(GREEN_TINT), PropertyKey.get(BLUE_TINT)};
+    public static final ThreadLocal<double[]> TINT_SCRATCH = ModuleManager.propertyScratch(TINT_KEYS.length);
 
     public TintModule(List<IModularItem> validItems) {
         super(validItems);
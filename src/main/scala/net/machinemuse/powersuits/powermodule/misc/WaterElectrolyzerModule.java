@@ -2,13 +2,13 @@ package net.machinemuse.powersuits.powermodule.misc;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.moduletrigger.IPlayerTickIntervalModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.general.sound.SoundDictionary;
 import net.machinemuse.numina.sound.Musique;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.minecraft.entity.player.EntityPlayer;
@@ -17,7 +17,7 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class WaterElectrolyzerModule extends PowerModuleBase implements IPlayerTickModule, IToggleableModule {
+public class WaterElectrolyzerModule extends PlayerTickContextModule implements IPlayerTickIntervalModule, IToggleableModule {
     public static final String WATERBREATHING_ENERGY_CONSUMPTION = "Jolt Energy";
     public static final String MODULE_WATER_ELECTROLYZER = "Water Electrolyzer";
 
@@ -48,12 +48,16 @@ public class WaterElectrolyzerModule extends PowerModuleBase implements IPlayerT
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
-        double energy = ElectricItemUtils.getPlayerEnergy(player);
+    public int getTickInterval() {
+        return 5;
+    }
+
+    @Override
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         double energyConsumption = ModuleManager.computeModularProperty(item, WATERBREATHING_ENERGY_CONSUMPTION);
-        if (energy > energyConsumption && player.getAir() < 10) {
+        if (player.getAir() < 10 && context.tryDrain(energyConsumption)) {
             Musique.playClientSound(SoundDictionary.SOUND_ELECTROLYZER, 1.0f);
-            ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
             player.setAir(300);
         }
     }
@@ -62,9 +62,8 @@ public class BlinkDriveModule extends PowerModuleBase implements IRightClickModu
     public void onRightClick(EntityPlayer player, World world, ItemStack itemStack) {
         double range = ModuleManager.computeModularProperty(itemStack, BLINK_DRIVE_RANGE);
         double energyConsumption = ModuleManager.computeModularProperty(itemStack, BLINK_DRIVE_ENERGY_CONSUMPTION);
-        if (ElectricItemUtils.getPlayerEnergy(player) > energyConsumption) {
+        if (ElectricItemUtils.tryDrain(player, energyConsumption, getDataName())) {
             NuminaPlayerUtils.resetFloatKickTicks(player);
-            ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
             world.playSoundAtEntity(player, "mob.endermen.portal", 0.5F, 0.4F / ((float) Math.random() * 0.4F + 0.8F));
             // MuseLogger.logDebug("Range: " + range);
             MovingObjectPosition hitMOP = MusePlayerUtils.doCustomRayTrace(player.worldObj, player, true, range);
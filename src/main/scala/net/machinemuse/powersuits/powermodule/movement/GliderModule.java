@@ -2,12 +2,12 @@ package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.numina.player.NuminaPlayerUtils;
 import net.machinemuse.powersuits.control.PlayerInputMap;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.machinemuse.utils.MusePlayerUtils;
@@ -18,7 +18,7 @@ import net.minecraft.util.Vec3;
 
 import java.util.List;
 
-public class GliderModule extends PowerModuleBase implements IToggleableModule, IPlayerTickModule {
+public class GliderModule extends PlayerTickContextModule implements IToggleableModule {
     public static final String MODULE_GLIDER = "Glider";
 
     @Override
@@ -52,11 +52,12 @@ public class GliderModule extends PowerModuleBase implements IToggleableModule,
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         Vec3 playerHorzFacing = player.getLookVec();
         playerHorzFacing.yCoord = 0;
         playerHorzFacing.normalize();
-        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+        PlayerInputMap movementInput = context.inputMap;
         boolean sneakkey = movementInput.sneakKey;
         float forwardkey = movementInput.forwardKey;
         ItemStack torso = player.getCurrentArmor(2);
@@ -2,14 +2,14 @@ package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.general.sound.SoundDictionary;
 import net.machinemuse.numina.sound.Musique;
 import net.machinemuse.powersuits.control.PlayerInputMap;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.machinemuse.utils.MusePlayerUtils;
@@ -19,10 +19,12 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class JetBootsModule extends PowerModuleBase implements IToggleableModule, IPlayerTickModule {
+public class JetBootsModule extends PlayerTickContextModule implements IToggleableModule {
     public static final String MODULE_JETBOOTS = "Jet Boots";
     public static final String JET_ENERGY_CONSUMPTION = "Jetboots Energy Consumption";
     public static final String JET_THRUST = "Jetboots Thrust";
+    protected static final PropertyKey[] JET_KEYS = {PropertyKey.get(JET_ENERGY_CONSUMPTION), PropertyKey.get(JET_THRUST)};
+    protected static final ThreadLocal<double[]> JET_SCRATCH = ModuleManager.propertyScratch(JET_KEYS.length);
 
     public JetBootsModule(List<IModularItem> validItems) {
         super(validItems);
@@ -54,28 +56,30 @@ public class JetBootsModule extends PowerModuleBase implements IToggleableModule
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         ItemStack chest = player.getCurrentArmor(1);
         if (player.isInWater()) {
             return;
         }
-        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+        PlayerInputMap movementInput = context.inputMap;
         boolean jumpkey = movementInput.jumpKey;
         ItemStack helmet = player.getCurrentArmor(3);
         boolean hasFlightControl = ModuleManager.itemHasActiveModule(helmet, FlightControlModule.MODULE_FLIGHT_CONTROL);
-        double jetEnergy = ModuleManager.computeModularProperty(item, JET_ENERGY_CONSUMPTION);
-        double thrust = ModuleManager.computeModularProperty(item, JET_THRUST);
+        double[] jet = ModuleManager.computeModularProperties(item, JET_SCRATCH.get(), JET_KEYS);
+        double jetEnergy = jet[0];
+        double thrust = jet[1];
 
-        if (jetEnergy < ElectricItemUtils.getPlayerEnergy(player)) {
-            thrust *= MusePlayerUtils.getWeightPenaltyRatio(MuseItemUtils.getPlayerWeight(player), 25000);
+        if (jetEnergy < context.getEnergy()) {
+            thrust *= MusePlayerUtils.getWeightPenaltyRatio(context.weight, 25000);
             if (hasFlightControl && thrust > 0) {
                 thrust = MusePlayerUtils.thrust(player, thrust, true);
                 Musique.playerSound(player, SoundDictionary.SOUND_JETBOOTS, (float) (thrust*12.5), 1.0f, true);
-                ElectricItemUtils.drainPlayerEnergy(player, thrust * jetEnergy);
+                context.drainEnergy(thrust * jetEnergy);
             } else if (jumpkey && player.motionY < 0.5) {
                 thrust = MusePlayerUtils.thrust(player, thrust, false);
                 Musique.playerSound(player, SoundDictionary.SOUND_JETBOOTS,(float) (thrust*12.5), 1.0f, true);
-                ElectricItemUtils.drainPlayerEnergy(player, thrust * jetEnergy);
+                context.drainEnergy(thrust * jetEnergy);
             } else {
                 Musique.stopPlayerSound(player, SoundDictionary.SOUND_JETBOOTS);
             }
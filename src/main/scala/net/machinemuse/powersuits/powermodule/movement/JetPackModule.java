@@ -2,14 +2,14 @@ package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.general.sound.SoundDictionary;
 import net.machinemuse.numina.sound.Musique;
 import net.machinemuse.powersuits.control.PlayerInputMap;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.machinemuse.utils.MusePlayerUtils;
@@ -19,10 +19,14 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class JetPackModule extends PowerModuleBase implements IToggleableModule, IPlayerTickModule {
+public class JetPackModule extends PlayerTickContextModule implements IToggleableModule {
     public static final String MODULE_JETPACK = "Jetpack";
     public static final String JET_ENERGY_CONSUMPTION = "Jetpack Energy Consumption";
     public static final String JET_THRUST = "Jetpack Thrust";
+    public static final PropertyKey JET_ENERGY_CONSUMPTION_KEY = PropertyKey.get(JET_ENERGY_CONSUMPTION);
+    public static final PropertyKey JET_THRUST_KEY = PropertyKey.get(JET_THRUST);
+    protected static final PropertyKey[] JET_KEYS = {JET_ENERGY_CONSUMPTION_KEY, JET_THRUST_KEY};
+    protected static final ThreadLocal<double[]> JET_SCRATCH = ModuleManager.propertyScratch(JET_KEYS.length);
 
     public JetPackModule(List<IModularItem> validItems) {
         super(validItems);
@@ -54,30 +58,30 @@ public class JetPackModule extends PowerModuleBase implements IToggleableModule,
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         if (player.isInWater()) {
             return;
         }
-        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+        PlayerInputMap movementInput = context.inputMap;
         boolean jumpkey = movementInput.jumpKey;
         ItemStack helmet = player.getCurrentArmor(3);
         boolean hasFlightControl = helmet != null && helmet.getItem() instanceof IModularItem
                 && ModuleManager.itemHasActiveModule(helmet, FlightControlModule.MODULE_FLIGHT_CONTROL);
-        double jetEnergy = 0;
-        double thrust = 0;
-        jetEnergy += ModuleManager.computeModularProperty(item, JET_ENERGY_CONSUMPTION);
-        thrust += ModuleManager.computeModularProperty(item, JET_THRUST);
+        double[] jet = ModuleManager.computeModularProperties(item, JET_SCRATCH.get(), JET_KEYS);
+        double jetEnergy = jet[0];
+        double thrust = jet[1];
 
-        if (jetEnergy < ElectricItemUtils.getPlayerEnergy(player)) {
-            thrust *= MusePlayerUtils.getWeightPenaltyRatio(MuseItemUtils.getPlayerWeight(player), 25000);
+        if (jetEnergy < context.getEnergy()) {
+            thrust *= MusePlayerUtils.getWeightPenaltyRatio(context.weight, 25000);
             if (hasFlightControl && thrust > 0) {
                 thrust = MusePlayerUtils.thrust(player, thrust, true);
                 Musique.playerSound(player, SoundDictionary.SOUND_JETPACK, (float) (thrust*6.25), 1.0f, true);
-                ElectricItemUtils.drainPlayerEnergy(player, thrust * jetEnergy);
+                context.drainEnergy(thrust * jetEnergy);
             } else if (jumpkey && player.motionY < 0.5) {
                 thrust = MusePlayerUtils.thrust(player, thrust, false);
                 Musique.playerSound(player, SoundDictionary.SOUND_JETPACK,(float) (thrust*6.25), 1.0f, true);
-                ElectricItemUtils.drainPlayerEnergy(player, thrust * jetEnergy);
+                context.drainEnergy(thrust * jetEnergy);
             } else {
                 Musique.stopPlayerSound(player, SoundDictionary.SOUND_JETPACK);
             }
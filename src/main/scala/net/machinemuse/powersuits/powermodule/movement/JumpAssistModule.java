@@ -1,13 +1,15 @@
 package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.numina.player.NuminaPlayerUtils;
 import net.machinemuse.powersuits.control.PlayerInputMap;
 import net.machinemuse.powersuits.event.MovementManager;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.machinemuse.utils.MusePlayerUtils;
@@ -17,11 +19,13 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class JumpAssistModule extends PowerModuleBase implements IToggleableModule, IPlayerTickModule {
+public class JumpAssistModule extends PlayerTickContextModule implements IToggleableModule {
     public static final String MODULE_JUMP_ASSIST = "Jump Assist";
     public static final String JUMP_ENERGY_CONSUMPTION = "Jump Energy Consumption";
     public static final String JUMP_MULTIPLIER = "Jump Boost";
     public static final String JUMP_FOOD_COMPENSATION = "Jump Exhaustion Compensation";
+    public static final PropertyKey[] JUMP_KEYS = {PropertyKey.get(JUMP_MULTIPLIER), PropertyKey.get(JUMP_ENERGY_CONSUMPTION), PropertyKey.get(JUMP_FOOD_COMPENSATION)};
+    public static final ThreadLocal<double[]> JUMP_SCRATCH = ModuleManager.propertyScratch(JUMP_KEYS.length);
 
     public JumpAssistModule(List<IModularItem> validItems) {
         super(validItems);
@@ -51,13 +55,14 @@ public class JumpAssistModule extends PowerModuleBase implements IToggleableModu
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
-        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
+        PlayerInputMap movementInput = context.inputMap;
         boolean jumpkey = movementInput.jumpKey;
         if (jumpkey) {
             double multiplier = MovementManager.getPlayerJumpMultiplier(player);
             if (multiplier > 0) {
-                player.motionY += 0.15 * Math.min(multiplier, 1) * MusePlayerUtils.getWeightPenaltyRatio(MuseItemUtils.getPlayerWeight(player), 25000);
+                player.motionY += 0.15 * Math.min(multiplier, 1) * MusePlayerUtils.getWeightPenaltyRatio(context.weight, 25000);
                 MovementManager.setPlayerJumpTicks(player, multiplier - 1);
             }
             player.jumpMovementFactor = player.getAIMoveSpeed() * .2f;
@@ -2,12 +2,12 @@ package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.numina.player.NuminaPlayerUtils;
 import net.machinemuse.powersuits.control.PlayerInputMap;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.machinemuse.utils.MusePlayerUtils;
@@ -17,7 +17,7 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class ParachuteModule extends PowerModuleBase implements IToggleableModule, IPlayerTickModule {
+public class ParachuteModule extends PlayerTickContextModule implements IToggleableModule {
     public static final String MODULE_PARACHUTE = "Parachute";
 
     public ParachuteModule(List<IModularItem> validItems) {
@@ -46,8 +46,9 @@ public class ParachuteModule extends PowerModuleBase implements IToggleableModul
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
-        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
+        PlayerInputMap movementInput = context.inputMap;
         float forwardkey = movementInput.forwardKey;
         boolean sneakkey = movementInput.sneakKey;
         ItemStack torso = player.getCurrentArmor(2);
@@ -58,7 +59,7 @@ public class ParachuteModule extends PowerModuleBase implements IToggleableModul
         }
         if (sneakkey && player.motionY < -0.1 && (!hasGlider || forwardkey <= 0)) {
             double totalVelocity = Math.sqrt(player.motionX * player.motionX + player.motionZ * player.motionZ + player.motionY * player.motionY)
-                    * MusePlayerUtils.getWeightPenaltyRatio(MuseItemUtils.getPlayerWeight(player), 25000);
+                    * MusePlayerUtils.getWeightPenaltyRatio(context.weight, 25000);
             if (totalVelocity > 0) {
                 player.motionX = player.motionX * 0.1 / totalVelocity;
                 player.motionY = player.motionY * 0.1 / totalVelocity;
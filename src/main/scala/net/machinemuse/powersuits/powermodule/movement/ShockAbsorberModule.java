@@ -1,6 +1,8 @@
 package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
 import net.machinemuse.powersuits.item.ItemComponent;
 import net.machinemuse.powersuits.powermodule.PowerModuleBase;
@@ -17,6 +19,8 @@ public class ShockAbsorberModule extends PowerModuleBase implements IToggleableM
     public static final String MODULE_SHOCK_ABSORBER = "Shock Absorber";
     public static final String SHOCK_ABSORB_MULTIPLIER = "Distance Reduction";
     public static final String SHOCK_ABSORB_ENERGY_CONSUMPTION = "Impact Energy consumption";
+    public static final PropertyKey[] SHOCK_ABSORB_KEYS = {PropertyKey.get(SHOCK_ABSORB_MULTIPLIER), PropertyKey.get(SHOCK_ABSORB_ENERGY_CONSUMPTION)};
+    public static final ThreadLocal<double[]> SHOCK_ABSORB_SCRATCH = ModuleManager.propertyScratch(SHOCK_ABSORB_KEYS.length);
 
     public ShockAbsorberModule(List<IModularItem> validItems) {
         super(validItems);
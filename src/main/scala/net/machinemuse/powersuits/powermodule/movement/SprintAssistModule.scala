@@ -2,11 +2,11 @@ package net.machinemuse.powersuits.powermodule.movement
 
 import net.machinemuse.api.IModularItem
 import net.machinemuse.api.ModuleManager
-import net.machinemuse.api.moduletrigger.IPlayerTickModule
+import net.machinemuse.api.PropertyKey
 import net.machinemuse.api.moduletrigger.IToggleableModule
+import net.machinemuse.api.moduletrigger.PlayerTickContext
 import net.machinemuse.powersuits.item.ItemComponent
-import net.machinemuse.powersuits.powermodule.PowerModuleBase
-import net.machinemuse.utils.ElectricItemUtils
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule
 import net.machinemuse.utils.MuseCommonStrings
 import net.machinemuse.utils.MuseItemUtils
 import net.minecraft.entity.player.EntityPlayer
@@ -24,10 +24,14 @@ object SprintAssistModule {
   val SPRINT_FOOD_COMPENSATION: String = "Sprint Exhaustion Compensation"
   val WALKING_ENERGY_CONSUMPTION: String = "Walking Energy Consumption"
   val WALKING_SPEED_MULTIPLIER: String = "Walking Speed Multiplier"
+  val SPRINT_KEYS: Array[PropertyKey] = Array(PropertyKey.get(SPRINT_ENERGY_CONSUMPTION), PropertyKey.get(SPRINT_SPEED_MULTIPLIER), PropertyKey.get(SPRINT_FOOD_COMPENSATION))
+  val SPRINT_SCRATCH: ThreadLocal[Array[Double]] = ModuleManager.propertyScratch(SPRINT_KEYS.length)
+  val WALKING_KEYS: Array[PropertyKey] = Array(PropertyKey.get(WALKING_ENERGY_CONSUMPTION), PropertyKey.get(WALKING_SPEED_MULTIPLIER))
+  val WALKING_SCRATCH: ThreadLocal[Array[Double]] = ModuleManager.propertyScratch(WALKING_KEYS.length)
   val TAGUUID: UUID = UUID(-7931854408382894632l, -8160638015224787553l)
 }
 
-class SprintAssistModule(validItems: List[IModularItem]) extends PowerModuleBase(validItems) with IToggleableModule with IPlayerTickModule {
+class SprintAssistModule(validItems: List[IModularItem]) extends PlayerTickContextModule(validItems) with IToggleableModule {
 
   import SprintAssistModule._
 
@@ -44,28 +48,31 @@ class SprintAssistModule(validItems: List[IModularItem]) extends PowerModuleBase
 
   def getDescription: String = "A set of servo motors to help you sprint (double-tap forward) and walk faster."
 
-  def onPlayerTickActive(player: EntityPlayer, item: ItemStack) {
+  def onPlayerTickActive(context: PlayerTickContext, item: ItemStack) {
+    val player: EntityPlayer = context.player
     val motionX = player.posX - player.lastTickPosX
     val motionY = player.posY - player.lastTickPosY
     val motionZ = player.posZ - player.lastTickPosZ
     val horzMovement: Double = Math.sqrt(motionX * motionX + motionZ * motionZ)
-    val totalEnergy: Double = ElectricItemUtils.getPlayerEnergy(player)
+    val totalEnergy: Double = context.getEnergy
     if (player.isSprinting) {
       val exhaustion: Double = Math.round(horzMovement * 100.0F) * 0.01
-      val sprintCost: Double = ModuleManager.computeModularProperty(item, SPRINT_ENERGY_CONSUMPTION)
+      val sprint: Array[Double] = ModuleManager.computeModularProperties(item, SPRINT_SCRATCH.get(), SPRINT_KEYS: _*)
+      val sprintCost: Double = sprint(0)
       if (sprintCost < totalEnergy) {
-        val sprintMultiplier: Double = ModuleManager.computeModularProperty(item, SPRINT_SPEED_MULTIPLIER)
-        val exhaustionComp: Double = ModuleManager.computeModularProperty(item, SPRINT_FOOD_COMPENSATION)
-        ElectricItemUtils.drainPlayerEnergy(player, sprintCost * horzMovement * 5)
+        val sprintMultiplier: Double = sprint(1)
+        val exhaustionComp: Double = sprint(2)
+        context.drainEnergy(sprintCost * horzMovement * 5)
         setMovementModifier(item, sprintMultiplier)
         player.getFoodStats.addExhaustion((-0.01 * exhaustion * exhaustionComp).asInstanceOf[Float])
                 player.jumpMovementFactor = player.getAIMoveSpeed * .2f
       }
     } else {
-      val cost: Double = ModuleManager.computeModularProperty(item, WALKING_ENERGY_CONSUMPTION)
+      val walking: Array[Double] = ModuleManager.computeModularProperties(item, WALKING_SCRATCH.get(), WALKING_KEYS: _*)
+      val cost: Double = walking(0)
       if (cost < totalEnergy) {
-        val walkMultiplier: Double = ModuleManager.computeModularProperty(item, WALKING_SPEED_MULTIPLIER)
-        ElectricItemUtils.drainPlayerEnergy(player, cost * horzMovement * 5)
+        val walkMultiplier: Double = walking(1)
+        context.drainEnergy(cost * horzMovement * 5)
         setMovementModifier(item, walkMultiplier)
                 player.jumpMovementFactor = player.getAIMoveSpeed * .2f
       }
@@ -2,14 +2,14 @@ package net.machinemuse.powersuits.powermodule.movement;
 
 import net.machinemuse.api.IModularItem;
 import net.machinemuse.api.ModuleManager;
-import net.machinemuse.api.moduletrigger.IPlayerTickModule;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.moduletrigger.IToggleableModule;
+import net.machinemuse.api.moduletrigger.PlayerTickContext;
 import net.machinemuse.general.sound.SoundDictionary;
 import net.machinemuse.numina.sound.Musique;
 import net.machinemuse.powersuits.control.PlayerInputMap;
 import net.machinemuse.powersuits.item.ItemComponent;
-import net.machinemuse.powersuits.powermodule.PowerModuleBase;
-import net.machinemuse.utils.ElectricItemUtils;
+import net.machinemuse.powersuits.powermodule.PlayerTickContextModule;
 import net.machinemuse.utils.MuseCommonStrings;
 import net.machinemuse.utils.MuseItemUtils;
 import net.machinemuse.utils.MusePlayerUtils;
@@ -19,10 +19,12 @@ import net.minecraft.util.StatCollector;
 
 import java.util.List;
 
-public class SwimAssistModule extends PowerModuleBase implements IToggleableModule, IPlayerTickModule {
+public class SwimAssistModule extends PlayerTickContextModule implements IToggleableModule {
     public static final String MODULE_SWIM_BOOST = "Swim Boost";
     public static final String SWIM_BOOST_AMOUNT = "Underwater Movement Boost";
     public static final String SWIM_BOOST_ENERGY_CONSUMPTION = "Swim Boost Energy Consumption";
+    protected static final PropertyKey[] SWIM_KEYS = {PropertyKey.get(SWIM_BOOST_AMOUNT), PropertyKey.get(SWIM_BOOST_ENERGY_CONSUMPTION)};
+    protected static final ThreadLocal<double[]> SWIM_SCRATCH = ModuleManager.propertyScratch(SWIM_KEYS.length);
 
     public SwimAssistModule(List<IModularItem> validItems) {
         super(validItems);
@@ -53,9 +55,10 @@ public class SwimAssistModule extends PowerModuleBase implements IToggleableModu
     }
 
     @Override
-    public void onPlayerTickActive(EntityPlayer player, ItemStack item) {
+    public void onPlayerTickActive(PlayerTickContext context, ItemStack item) {
+        EntityPlayer player = context.player;
         if (player.isInWater() && !(player.isRiding())) {
-            PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+            PlayerInputMap movementInput = context.inputMap;
             boolean jumpkey = movementInput.jumpKey;
             boolean sneakkey = movementInput.sneakKey;
             float forwardkey = movementInput.forwardKey;
@@ -71,9 +74,10 @@ public class SwimAssistModule extends PowerModuleBase implements IToggleableModu
                 if (jumpkey || sneakkey) {
                     moveRatio += 0.2 * 0.2;
                 }
-                double swimAssistRate = ModuleManager.computeModularProperty(item, SWIM_BOOST_AMOUNT) * 0.05;
-                double swimEnergyConsumption = ModuleManager.computeModularProperty(item, SWIM_BOOST_ENERGY_CONSUMPTION);
-                if (swimEnergyConsumption < ElectricItemUtils.getPlayerEnergy(player)) {
+                double[] swim = ModuleManager.computeModularProperties(item, SWIM_SCRATCH.get(), SWIM_KEYS);
+                double swimAssistRate = swim[0] * 0.05;
+                double swimEnergyConsumption = swim[1];
+                if (swimEnergyConsumption < context.getEnergy()) {
                     Musique.playerSound(player, SoundDictionary.SOUND_SWIMASSIST, 1.0f, 1.0f, true);
                     MusePlayerUtils.thrust(player, swimAssistRate, true);
                 } else {
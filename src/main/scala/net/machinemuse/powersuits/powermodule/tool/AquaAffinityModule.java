@@ -62,7 +62,7 @@ public class AquaAffinityModule extends PowerModuleBase implements IBlockBreakin
     public boolean onBlockDestroyed(ItemStack stack, World world, Block block, int x, int y, int z, EntityPlayer player) {
         if (player.isInsideOfMaterial(Material.water) || !player.onGround) {
             ElectricItemUtils.drainPlayerEnergy(player,
-                    ModuleManager.computeModularProperty(stack, AQUA_AFFINITY_ENERGY_CONSUMPTION));
+                    ModuleManager.computeModularProperty(stack, AQUA_AFFINITY_ENERGY_CONSUMPTION), getDataName());
         }
         return true;
     }
@@ -80,7 +80,7 @@ public class AxeModule extends PowerModuleBase implements IBlockBreakingModule,
         int meta = world.getBlockMetadata(x, y, z);
         if (canHarvestBlock(stack, block, meta, player)) {
             double energyConsumption = ModuleManager.computeModularProperty(stack, AXE_ENERGY_CONSUMPTION);
-            ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
+            ElectricItemUtils.drainPlayerEnergy(player, energyConsumption, getDataName());
             return true;
         }
         return false;
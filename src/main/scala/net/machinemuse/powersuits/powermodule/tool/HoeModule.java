@@ -44,6 +44,7 @@ public class HoeModule extends PowerModuleBase implements IPowerModule, IRightCl
     @Override
     public void onItemUse(ItemStack itemStack, EntityPlayer player, World world, int x, int y, int z, int side, float hitX, float hitY, float hitZ) {
         double energyConsumed = ModuleManager.computeModularProperty(itemStack, HOE_ENERGY_CONSUMPTION);
+        // Only an early out, using the same strict test as tryDrain; every actual charge below goes through tryDrain
         if (player.canPlayerEdit(x, y, z, side, itemStack) && ElectricItemUtils.getPlayerEnergy(player) > energyConsumed) {
             UseHoeEvent event = new UseHoeEvent(player, itemStack, world, x, y, z);
             if (MinecraftForge.EVENT_BUS.post(event)) {
@@ -51,7 +52,10 @@ public class HoeModule extends PowerModuleBase implements IPowerModule, IRightCl
             }
 
             if (event.getResult() == Event.Result.ALLOW) {
-                ElectricItemUtils.drainPlayerEnergy(player, energyConsumed);
+                // Another mod has already done the tilling, so there is nothing to hold back if the payment fails.
+                // The check above means it can only fail if that mod's handler spent the energy itself; the use
+                // then goes uncharged rather than taking a partial payment.
+                ElectricItemUtils.tryDrain(player, energyConsumed, getDataName());
                 return;
             }
 
@@ -59,13 +63,16 @@ public class HoeModule extends PowerModuleBase implements IPowerModule, IRightCl
                 return;
             }
             double radius = (int) ModuleManager.computeModularProperty(itemStack, HOE_SEARCH_RADIUS);
+            tilling:
             for (int i = (int) Math.floor(-radius); i < radius; i++) {
                 for (int j = (int) Math.floor(-radius); j < radius; j++) {
                     if (i * i + j * j < radius * radius) {
                         Block block = world.getBlock(x + i, y, z + j);
                         if (block == Blocks.grass || block == Blocks.dirt) {
+                            if (!ElectricItemUtils.tryDrain(player, energyConsumed, getDataName())) {
+                                break tilling;
+                            }
                             world.setBlock(x + i, y, z + j, Blocks.farmland);
-                            ElectricItemUtils.drainPlayerEnergy(player, ModuleManager.computeModularProperty(itemStack, HOE_ENERGY_CONSUMPTION));
                         }
                     }
                 }
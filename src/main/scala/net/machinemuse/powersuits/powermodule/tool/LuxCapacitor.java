@@ -1,6 +1,7 @@
 package net.machinemuse.powersuits.powermodule.tool;
 
 import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.ModuleManager;
 import net.machinemuse.api.moduletrigger.IRightClickModule;
 import net.machinemuse.powersuits.entity.EntityLuxCapacitor;
@@ -22,6 +23,8 @@ public class LuxCapacitor extends PowerModuleBase implements IRightClickModule {
     public static final String RED =  "Lux Capacitor Red Hue";
     public static final String GREEN = "Lux Capacitor Green Hue";
     public static final String BLUE = "Lux Capacitor Blue Hue";
+    protected static final PropertyKey[] LUX_KEYS = {PropertyKey.get(ENERGY), PropertyKey.get(RED), PropertyKey.get(GREEN), PropertyKey.get(BLUE)};
+    protected static final ThreadLocal<double[]> LUX_SCRATCH = ModuleManager.propertyScratch(LUX_KEYS.length);
 
     public LuxCapacitor(List<IModularItem> validItems) {
         super(validItems);
@@ -62,15 +65,11 @@ public class LuxCapacitor extends PowerModuleBase implements IRightClickModule {
     public void onRightClick(EntityPlayer player, World world, ItemStack itemStack) {
         player.setItemInUse(itemStack, 10);
         if (!world.isRemote) {
-            double energyConsumption = ModuleManager.computeModularProperty(itemStack, ENERGY);
+            double[] lux = ModuleManager.computeModularProperties(itemStack, LUX_SCRATCH.get(), LUX_KEYS);
+            double energyConsumption = lux[0];
             // MuseHeatUtils.heatPlayer(player, energyConsumption / 500);
-            if (ElectricItemUtils.getPlayerEnergy(player) > energyConsumption) {
-                ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
-
-                double red = ModuleManager.computeModularProperty(itemStack, RED);
-                double green = ModuleManager.computeModularProperty(itemStack, GREEN);
-                double blue = ModuleManager.computeModularProperty(itemStack, BLUE);
-                EntityLuxCapacitor luxCapacitor = new EntityLuxCapacitor(world, player, red, green, blue);
+            if (ElectricItemUtils.tryDrain(player, energyConsumption, getDataName())) {
+                EntityLuxCapacitor luxCapacitor = new EntityLuxCapacitor(world, player, lux[1], lux[2], lux[3]);
                 world.spawnEntityInWorld(luxCapacitor);
             }
         }
@@ -79,7 +79,8 @@ public class ShearsModule extends PowerModuleBase implements IBlockBreakingModul
         if (hitMOP != null && hitMOP.entityHit instanceof IShearable) {
             IShearable target = (IShearable) hitMOP.entityHit;
             Entity entity = hitMOP.entityHit;
-            if (target.isShearable(stack, entity.worldObj, (int) entity.posX, (int) entity.posY, (int) entity.posZ)) {
+            if (target.isShearable(stack, entity.worldObj, (int) entity.posX, (int) entity.posY, (int) entity.posZ)
+                    && ElectricItemUtils.tryDrain(playerClicking, ModuleManager.computeModularProperty(stack, SHEARING_ENERGY_CONSUMPTION), getDataName())) {
                 ArrayList<ItemStack> drops = target.onSheared(stack, entity.worldObj, (int) entity.posX, (int) entity.posY,
                         (int) entity.posZ,
                         EnchantmentHelper.getEnchantmentLevel(Enchantment.fortune.effectId, stack));
@@ -91,7 +92,6 @@ public class ShearsModule extends PowerModuleBase implements IBlockBreakingModul
                     ent.motionX += (rand.nextFloat() - rand.nextFloat()) * 0.1F;
                     ent.motionZ += (rand.nextFloat() - rand.nextFloat()) * 0.1F;
                 }
-                ElectricItemUtils.drainPlayerEnergy(playerClicking, ModuleManager.computeModularProperty(stack, SHEARING_ENERGY_CONSUMPTION));
             }
         }
     }
@@ -125,9 +125,10 @@ public class ShearsModule extends PowerModuleBase implements IBlockBreakingModul
         if (player.worldObj.isRemote) {
             return false;
         }
-        if (block instanceof IShearable && ElectricItemUtils.getPlayerEnergy(player) > ModuleManager.computeModularProperty(itemstack, SHEARING_ENERGY_CONSUMPTION)) {
+        if (block instanceof IShearable) {
             IShearable target = (IShearable) block;
-            if (target.isShearable(itemstack, player.worldObj, x, y, z)) {
+            if (target.isShearable(itemstack, player.worldObj, x, y, z)
+                    && ElectricItemUtils.tryDrain(player, ModuleManager.computeModularProperty(itemstack, SHEARING_ENERGY_CONSUMPTION), getDataName())) {
                 ArrayList<ItemStack> drops = target.onSheared(itemstack, player.worldObj, x, y, z,
                         EnchantmentHelper.getEnchantmentLevel(Enchantment.fortune.effectId, itemstack));
                 Random rand = new Random();
@@ -142,7 +143,6 @@ public class ShearsModule extends PowerModuleBase implements IBlockBreakingModul
                     player.worldObj.spawnEntityInWorld(entityitem);
                 }
 
-                ElectricItemUtils.drainPlayerEnergy(player, ModuleManager.computeModularProperty(itemstack, SHEARING_ENERGY_CONSUMPTION));
                 player.addStat(StatList.mineBlockStatArray[Block.getIdFromBlock(block)], 1);
             }
         }
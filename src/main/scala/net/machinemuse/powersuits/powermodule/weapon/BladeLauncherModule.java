@@ -79,9 +79,7 @@ public class BladeLauncherModule extends PowerModuleBase implements IRightClickM
 
         if (!world.isRemote) {
             double energyConsumption = ModuleManager.computeModularProperty(itemStack, BLADE_ENERGY);
-            if (ElectricItemUtils.getPlayerEnergy(player) > energyConsumption) {
-                ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
-
+            if (ElectricItemUtils.tryDrain(player, energyConsumption, getDataName())) {
                 EntitySpinningBlade blade = new EntitySpinningBlade(world, player);
                 world.spawnEntityInWorld(blade);
             }
@@ -1,6 +1,8 @@
 package net.machinemuse.powersuits.powermodule.weapon;
 
 import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.powersuits.item.ItemComponent;
 import net.machinemuse.powersuits.powermodule.PowerModuleBase;
 import net.machinemuse.utils.MuseCommonStrings;
@@ -14,6 +16,8 @@ public class MeleeAssistModule extends PowerModuleBase {
     public static final String PUNCH_ENERGY = "Punch Energy Consumption";
     public static final String PUNCH_DAMAGE = "Melee Damage";
     public static final String PUNCH_KNOCKBACK = "Melee Knockback";
+    public static final PropertyKey[] PUNCH_KEYS = {PropertyKey.get(PUNCH_ENERGY), PropertyKey.get(PUNCH_DAMAGE), PropertyKey.get(PUNCH_KNOCKBACK)};
+    public static final ThreadLocal<double[]> PUNCH_SCRATCH = ModuleManager.propertyScratch(PUNCH_KEYS.length);
 
     public MeleeAssistModule(List<IModularItem> validItems) {
         super(validItems);
@@ -89,8 +89,7 @@ public class PlasmaCannonModule extends PowerModuleBase implements IRightClickMo
             double energyConsumption = ModuleManager.computeModularProperty(itemStack, PlasmaCannonModule.PLASMA_CANNON_ENERGY_PER_TICK)
                     * chargeTicks;
             MuseHeatUtils.heatPlayer(player, energyConsumption / 500);
-            if (ElectricItemUtils.getPlayerEnergy(player) > energyConsumption) {
-                ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
+            if (ElectricItemUtils.tryDrain(player, energyConsumption, getDataName())) {
                 double explosiveness = ModuleManager.computeModularProperty(itemStack, PlasmaCannonModule.PLASMA_CANNON_EXPLOSIVENESS);
                 double damagingness = ModuleManager.computeModularProperty(itemStack, PlasmaCannonModule.PLASMA_CANNON_DAMAGE_AT_FULL_CHARGE);
 
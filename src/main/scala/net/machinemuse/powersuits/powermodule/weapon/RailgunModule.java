@@ -1,6 +1,7 @@
 package net.machinemuse.powersuits.powermodule.weapon;
 
 import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.ModuleManager;
 import net.machinemuse.api.moduletrigger.IRightClickModule;
 import net.machinemuse.powersuits.item.ItemComponent;
@@ -23,6 +24,8 @@ public class RailgunModule extends PowerModuleBase implements IRightClickModule
     public static final String IMPULSE = "Railgun Total Impulse";
     public static final String ENERGY = "Railgun Energy Cost";
     public static final String HEAT = "Railgun Heat Emission";
+    protected static final PropertyKey[] RAILGUN_KEYS = {PropertyKey.get(ENERGY), PropertyKey.get(HEAT), PropertyKey.get(IMPULSE)};
+    protected static final ThreadLocal<double[]> RAILGUN_SCRATCH = ModuleManager.propertyScratch(RAILGUN_KEYS.length);
 
     public RailgunModule(List<IModularItem> validItems) {
         super(validItems);
@@ -91,14 +94,14 @@ public class RailgunModule extends PowerModuleBase implements IRightClickModule
     public void onRightClick(EntityPlayer player, World world, ItemStack itemStack) {
 
         double range = 64;
-        double energyConsumption = ModuleManager.computeModularProperty(itemStack, ENERGY);
-        if (ElectricItemUtils.getPlayerEnergy(player) > energyConsumption) {
-            ElectricItemUtils.drainPlayerEnergy(player, energyConsumption);
-            MuseHeatUtils.heatPlayer(player, ModuleManager.computeModularProperty(itemStack, HEAT));
+        double[] railgun = ModuleManager.computeModularProperties(itemStack, RAILGUN_SCRATCH.get(), RAILGUN_KEYS);
+        double energyConsumption = railgun[0];
+        if (ElectricItemUtils.tryDrain(player, energyConsumption, getDataName())) {
+            MuseHeatUtils.heatPlayer(player, railgun[1]);
             MovingObjectPosition hitMOP = MusePlayerUtils.doCustomRayTrace(player.worldObj, player, true, range);
             world.playSoundAtEntity(player, "random.bow", 0.5F, 0.4F / ((float) Math.random() * 0.4F + 0.8F));
 
-            double damage = ModuleManager.computeModularProperty(itemStack, IMPULSE) / 100.0;
+            double damage = railgun[2] / 100.0;
             double knockback = damage / 20.0;
             Vec3 lookVec = player.getLookVec();
             if (hitMOP != null) {
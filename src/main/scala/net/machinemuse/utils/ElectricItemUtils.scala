@@ -1,49 +1,75 @@
 package net.machinemuse.utils
 
+import com.google.common.collect.MapMaker
+import net.machinemuse.api.PropertyKey
 import net.machinemuse.api.electricity.ElectricAdapter
 import net.machinemuse.powersuits.item.ItemComponent
 import net.minecraft.entity.player.EntityPlayer
 import net.minecraft.item.ItemStack
-import scala.collection.JavaConverters._
-import scala.collection.mutable.ListBuffer
 
 object ElectricItemUtils {
   final val MAXIMUM_ENERGY: String = "Maximum Energy"
+  /**
+   * Where energy used to be kept, as a double in joules. Only read now, to pick up old items.
+   */
   final val CURRENT_ENERGY: String = "Current Energy"
+  /**
+   * Stored energy in millijoules, as a long
+   */
+  final val STORED_ENERGY: String = "Stored Energy"
+  final val MAXIMUM_ENERGY_KEY: PropertyKey = PropertyKey.get(MAXIMUM_ENERGY)
 
-  def electricItemsEquipped(player: EntityPlayer): Seq[ElectricAdapter] = {
-    val electrics = new ListBuffer[ElectricAdapter]()
-    for (i <- 0 until player.inventory.getSizeInventory) {
-      val adapter: ElectricAdapter = ElectricAdapter.wrap(player.inventory.getStackInSlot(i))
-      if (adapter != null) {
-        electrics.prepend(adapter)
-      }
-    }
-    electrics
-  }
+  /**
+   * Cached energy pools, one per player object. Weak keys, so logged-out players' pools go with them.
+   */
+  val energyPools: java.util.Map[EntityPlayer, EnergyPool] = new MapMaker().weakKeys().makeMap[EntityPlayer, EnergyPool]()
 
-  def getPlayerEnergy(player: EntityPlayer): Double = {
-    (0.0 /: electricItemsEquipped(player)) {
-      case (avail, adapter) => avail + adapter.getCurrentEnergy
+  def getEnergyPool(player: EntityPlayer): EnergyPool = {
+    energyPools.get(player) match {
+      case null =>
+        val pool = new EnergyPool(player)
+        energyPools.put(player, pool)
+        pool
+      case pool => pool
     }
   }
 
-  def getMaxEnergy(player: EntityPlayer): Double = {
-    (0.0 /: electricItemsEquipped(player)) {
-      case (avail, adapter) => avail + adapter.getMaxEnergy
-    }
+  def electricItemsEquipped(player: EntityPlayer): Seq[ElectricAdapter] = {
+    val pool = getEnergyPool(player)
+    pool.validate()
+    pool.adapters
   }
 
+  def getPlayerEnergy(player: EntityPlayer): Double = getEnergyPool(player).getEnergy
+
+  def getMaxEnergy(player: EntityPlayer): Double = getEnergyPool(player).getMaxEnergy
+
   def drainPlayerEnergy(player: EntityPlayer, drainAmount: Double) {
-    (drainAmount /: electricItemsEquipped(player)) {
-      case (drainleft, adapter) => drainleft - adapter.drainEnergy(drainleft)
-    }
+    getEnergyPool(player).drain(drainAmount)
   }
 
+  /**
+   * Checks and drains in one go: takes the amount only if the player has more than that.
+   *
+   * @return whether the energy was drained
+   */
+  def tryDrain(player: EntityPlayer, amount: Double): Boolean = getEnergyPool(player).tryDrain(amount)
+
   def givePlayerEnergy(player: EntityPlayer, joulesToGive: Double) {
-    (joulesToGive /: electricItemsEquipped(player)) {
-      case (joulesleft, adapter) => joulesleft - adapter.giveEnergy(joulesleft)
-    }
+    getEnergyPool(player).give(joulesToGive)
+  }
+
+  /**
+   * The same as drainPlayerEnergy, but counted against the named module in the player's energy telemetry.
+   */
+  def drainPlayerEnergy(player: EntityPlayer, drainAmount: Double, moduleName: String) {
+    getEnergyPool(player).drainFor(moduleName, drainAmount)
+  }
+
+  def tryDrain(player: EntityPlayer, amount: Double, moduleName: String): Boolean = getEnergyPool(player).tryDrainFor(moduleName, amount)
+
+  def givePlayerEnergy(player: EntityPlayer, joulesToGive: Double, moduleName: String) {
+    getEnergyPool(player).giveFor(moduleName, joulesToGive)
   }
 
   def jouleValueOfComponent(stackInCost: ItemStack): Double = {
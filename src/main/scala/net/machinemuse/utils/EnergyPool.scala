@@ -0,0 +1,289 @@
+package net.machinemuse.utils
+
+import net.machinemuse.api.ModuleManager
+import net.machinemuse.api.electricity.{ElectricAdapter, MuseElectricAdapter}
+import net.machinemuse.powersuits.common.Config
+import net.minecraft.entity.player.EntityPlayer
+import net.minecraft.item.ItemStack
+
+/**
+ * Every chargeable item in one player's inventory, wrapped once and kept between calls.
+ *
+ * The pool remembers which stack was in each slot and rebuilds itself when any of them changes, or when a module
+ * install or tweak might have changed a capacity. Current energy is re-read from the items once per tick, since
+ * chargers and other mods can fill them behind our back; in between, drains and charges made through the pool adjust
+ * the cached sum as they go.
+ *
+ * While a ledger is open, drains and charges against MPS items are only recorded against a per-item running
+ * balance, and each changed item gets a single NBT write when the ledger is committed. IC2 and TE items keep going
+ * straight to their own managers, since their transfer limits only apply per call.
+ *
+ * Drains and charges go through the items in the order set by Config.energyDrainOrder. By default MPS items come
+ * first, because they're cheap to use and covered by the ledger; then other mods' armor; then anything else.
+ */
+class EnergyPool(val player: EntityPlayer) {
+  protected var slotStacks: Array[ItemStack] = new Array[ItemStack](0)
+  protected var modificationCount: Int = -1
+  protected var summedAt: Long = Long.MinValue
+  protected var energy: Double = 0
+  protected var maxEnergy: Double = 0
+  /**
+   * In the order energy is drained from them: by drain order category, then fullest first, then last slot first
+   */
+  var adapters: Array[ElectricAdapter] = new Array[ElectricAdapter](0)
+
+  /**
+   * The ordinal of the module that drains and charges are currently being made for, or -1 if none
+   */
+  var source: Int = -1
+  protected var telemetryRecord: EnergyTelemetry = null
+
+  protected var ledgerOpen: Boolean = false
+  protected var balances: Array[Double] = new Array[Double](0)
+  protected var capacities: Array[Double] = new Array[Double](0)
+  protected var dirty: Array[Boolean] = new Array[Boolean](0)
+
+  /**
+   * Makes sure the pool matches the player's inventory, rebuilding or re-summing it if not.
+   */
+  def validate() {
+    val inventory = player.inventory
+    val size = inventory.getSizeInventory
+    var changed = slotStacks.length != size || modificationCount != ModuleManager.getModificationCount
+    var i = 0
+    while (!changed && i < size) {
+      if (inventory.getStackInSlot(i) ne slotStacks(i)) changed = true
+      i += 1
+    }
+    if (changed) {
+      flushLedger()
+      rebuild()
+    } else if (summedAt != player.worldObj.getTotalWorldTime) {
+      flushLedger()
+      resum()
+    }
+  }
+
+  /**
+   * Starts deferring writes to MPS items until commitLedger.
+   */
+  def openLedger() {
+    validate()
+    ledgerOpen = true
+    snapshotBalances()
+  }
+
+  /**
+   * Writes every balance that changed since openLedger back to its item and stops deferring.
+   */
+  def commitLedger() {
+    flushLedger()
+    ledgerOpen = false
+  }
+
+  protected def flushLedger() {
+    if (ledgerOpen) {
+      var i = 0
+      while (i < adapters.length) {
+        if (dirty(i)) {
+          adapters(i) match {
+            case adapter: MuseElectricAdapter => adapter.item.setCurrentEnergy(adapter.stack, balances(i))
+            case _ =>
+          }
+        }
+        i += 1
+      }
+      java.util.Arrays.fill(dirty, false)
+    }
+  }
+
+  /**
+   * Fills the ledger arrays from the items. They are kept from tick to tick and only reallocated when the number of
+   * adapters changes, so opening the ledger every tick makes no garbage.
+   */
+  protected def snapshotBalances() {
+    if (ledgerOpen) {
+      val count = adapters.length
+      if (balances.length != count) {
+        balances = new Array[Double](count)
+        capacities = new Array[Double](count)
+        dirty = new Array[Boolean](count)
+      } else {
+        java.util.Arrays.fill(dirty, false)
+      }
+      var i = 0
+      while (i < count) {
+        adapters(i) match {
+          case adapter: MuseElectricAdapter =>
+            balances(i) = adapter.getCurrentEnergy
+            capacities(i) = adapter.getMaxEnergy
+          case _ =>
+            balances(i) = 0
+            capacities(i) = 0
+        }
+        i += 1
+      }
+    }
+  }
+
+  protected def rebuild() {
+    val inventory = player.inventory
+    val size = inventory.getSizeInventory
+    val order = Config.energyDrainOrder
+    val stacks = new Array[ItemStack](size)
+    val found = new scala.collection.mutable.ArrayBuffer[(ElectricAdapter, Int, Double)]
+    var slot = size - 1
+    while (slot >= 0) {
+      val stack = inventory.getStackInSlot(slot)
+      stacks(slot) = stack
+      val adapter = ElectricAdapter.wrap(stack)
+      if (adapter != null) {
+        found += ((adapter, drainRank(order, adapter, slot), adapter.getCurrentEnergy))
+      }
+      slot -= 1
+    }
+    slotStacks = stacks
+    // Fullest first within each category, so a big drain is covered by as few items as possible
+    adapters = found.sortBy { case (_, rank, current) => (rank, -current) }.map(_._1).toArray
+    modificationCount = ModuleManager.getModificationCount
+    maxEnergy = (0.0 /: adapters)(_ + _.getMaxEnergy)
+    resum()
+  }
+
+  protected def drainRank(order: Array[String], adapter: ElectricAdapter, slot: Int): Int = {
+    val category = adapter match {
+      case _: MuseElectricAdapter => EnergyPool.MPS
+      case _ if slot >= player.inventory.mainInventory.length => EnergyPool.ARMOR
+      case _ => EnergyPool.FOREIGN
+    }
+    val rank = order.indexOf(category)
+    if (rank < 0) order.length else rank
+  }
+
+  protected def resum() {
+    energy = (0.0 /: adapters)(_ + _.getCurrentEnergy)
+    summedAt = player.worldObj.getTotalWorldTime
+    snapshotBalances()
+  }
+
+  protected def isDeferred(i: Int): Boolean = ledgerOpen && adapters(i).isInstanceOf[MuseElectricAdapter]
+
+  def getEnergy: Double = {
+    validate()
+    energy
+  }
+
+  def getMaxEnergy: Double = {
+    validate()
+    maxEnergy
+  }
+
+  /**
+   * @return how much energy was actually drained
+   */
+  def drain(amount: Double): Double = {
+    validate()
+    drainValidated(amount)
+  }
+
+  /**
+   * Drains the amount only if the player has more than that available.
+   *
+   * @return whether it was drained
+   */
+  def tryDrain(amount: Double): Boolean = {
+    validate()
+    if (energy > amount) {
+      drainValidated(amount)
+      true
+    } else {
+      false
+    }
+  }
+
+  protected def drainValidated(amount: Double): Double = {
+    var left = amount
+    var i = 0
+    while (left > 0 && i < adapters.length) {
+      if (isDeferred(i)) {
+        val taken = Math.min(left, balances(i))
+        if (taken > 0) {
+          balances(i) -= taken
+          dirty(i) = true
+          left -= taken
+        }
+      } else {
+        left -= adapters(i).drainEnergy(left)
+      }
+      i += 1
+    }
+    energy -= amount - left
+    telemetry.recordDrain(source, amount - left, player.worldObj.getTotalWorldTime)
+    amount - left
+  }
+
+  /**
+   * @return how much energy was actually stored
+   */
+  def give(amount: Double): Double = {
+    validate()
+    var left = amount
+    var i = 0
+    while (left > 0 && i < adapters.length) {
+      if (isDeferred(i)) {
+        val stored = Math.min(left, capacities(i) - balances(i))
+        if (stored > 0) {
+          balances(i) += stored
+          dirty(i) = true
+          left -= stored
+        }
+      } else {
+        left -= adapters(i).giveEnergy(left)
+      }
+      i += 1
+    }
+    energy += amount - left
+    telemetry.recordGive(source, amount - left, player.worldObj.getTotalWorldTime)
+    amount - left
+  }
+
+  /**
+   * This player's recent energy flow, by module. Sized to the module registry, so it starts over if that grows.
+   */
+  def telemetry: EnergyTelemetry = {
+    val sources = ModuleManager.getModuleArray.length + 1
+    if (telemetryRecord == null || telemetryRecord.sources != sources) {
+      telemetryRecord = new EnergyTelemetry(sources)
+    }
+    telemetryRecord
+  }
+
+  /**
+   * Drains on behalf of the named module, so the telemetry counts it against that module.
+   *
+   * @return how much energy was actually drained
+   */
+  def drainFor(moduleName: String, amount: Double): Double = {
+    val previous = source
+    source = ModuleManager.getModuleOrdinal(moduleName)
+    try drain(amount) finally source = previous
+  }
+
+  def tryDrainFor(moduleName: String, amount: Double): Boolean = {
+    val previous = source
+    source = ModuleManager.getModuleOrdinal(moduleName)
+    try tryDrain(amount) finally source = previous
+  }
+
+  def giveFor(moduleName: String, amount: Double): Double = {
+    val previous = source
+    source = ModuleManager.getModuleOrdinal(moduleName)
+    try give(amount) finally source = previous
+  }
+}
+
+object EnergyPool {
+  final val MPS = "mps"
+  final val ARMOR = "armor"
+  final val FOREIGN = "foreign"
+}
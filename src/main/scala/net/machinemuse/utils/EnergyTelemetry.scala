@@ -0,0 +1,122 @@
+package net.machinemuse.utils
+
+/**
+ * How much energy each module has drained from and given to one player, tick by tick, over the last HISTORY ticks.
+ *
+ * Sources are module ordinals, with one extra slot on the end for anything not attributed to a module. Everything
+ * lives in flat arrays allocated up front and reused as a ring, so recording never allocates and can stay on.
+ */
+class EnergyTelemetry(val sources: Int) {
+  import EnergyTelemetry.HISTORY
+
+  protected val drained: Array[Double] = new Array[Double](HISTORY * sources)
+  protected val given: Array[Double] = new Array[Double](HISTORY * sources)
+  protected var currentTick: Long = Long.MinValue
+
+  def unattributed: Int = sources - 1
+
+  /**
+   * Moves the ring up to the given world time, clearing the rows for any ticks that went by without a record.
+   */
+  def advanceTo(worldTime: Long) {
+    if (worldTime == currentTick) return
+    if (currentTick == Long.MinValue || worldTime < currentTick || worldTime - currentTick >= HISTORY) {
+      java.util.Arrays.fill(drained, 0)
+      java.util.Arrays.fill(given, 0)
+    } else {
+      var tick = currentTick + 1
+      while (tick <= worldTime) {
+        val start = row(tick)
+        java.util.Arrays.fill(drained, start, start + sources, 0)
+        java.util.Arrays.fill(given, start, start + sources, 0)
+        tick += 1
+      }
+    }
+    currentTick = worldTime
+  }
+
+  protected def row(worldTime: Long): Int = ((worldTime % HISTORY + HISTORY) % HISTORY).toInt * sources
+
+  protected def slot(source: Int): Int = if (source < 0 || source >= sources) unattributed else source
+
+  def recordDrain(source: Int, amount: Double, worldTime: Long) {
+    if (amount != 0) {
+      advanceTo(worldTime)
+      drained(row(worldTime) + slot(source)) += amount
+    }
+  }
+
+  def recordGive(source: Int, amount: Double, worldTime: Long) {
+    if (amount != 0) {
+      advanceTo(worldTime)
+      given(row(worldTime) + slot(source)) += amount
+    }
+  }
+
+  /**
+   * @param ticksAgo 0 for the most recent tick, up to HISTORY - 1
+   */
+  def getDrained(source: Int, ticksAgo: Int): Double = drained(row(currentTick - ticksAgo) + slot(source))
+
+  def getGiven(source: Int, ticksAgo: Int): Double = given(row(currentTick - ticksAgo) + slot(source))
+
+  /**
+   * Everything drained in one tick, across all sources
+   */
+  def getTotalDrained(ticksAgo: Int): Double = {
+    val start = row(currentTick - ticksAgo)
+    var total = 0.0
+    var i = 0
+    while (i < sources) {
+      total += drained(start + i)
+      i += 1
+    }
+    total
+  }
+
+  /**
+   * @return the source's average drain in J/tick over the whole history
+   */
+  def getAverageDrained(source: Int): Double = {
+    val s = slot(source)
+    var total = 0.0
+    var tick = 0
+    while (tick < HISTORY) {
+      total += drained(tick * sources + s)
+      tick += 1
+    }
+    total / HISTORY
+  }
+
+  /**
+   * @return up to count sources that drained anything, heaviest average drain first
+   */
+  def getTopSources(count: Int): Array[Int] = {
+    (0 until sources).map(source => (source, getAverageDrained(source))).filter(_._2 > 0).sortBy(-_._2).take(count).map(_._1).toArray
+  }
+
+  /**
+   * @return the source with the highest average drain, or -1 if nothing has been drained
+   */
+  def getTopSource: Int = {
+    var top = -1
+    var topDrain = 0.0
+    var source = 0
+    while (source < sources) {
+      val drain = getAverageDrained(source)
+      if (drain > topDrain) {
+        top = source
+        topDrain = drain
+      }
+      source += 1
+    }
+    top
+  }
+}
+
+object EnergyTelemetry {
+  /**
+   * Ticks of history kept: five seconds
+   */
+  final val HISTORY: Int = 100
+}
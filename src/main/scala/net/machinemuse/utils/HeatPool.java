@@ -0,0 +1,116 @@
+package net.machinemuse.utils;
+
+import net.machinemuse.api.IModularItem;
+import net.machinemuse.api.ModuleManager;
+import net.machinemuse.powersuits.common.Config;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One player's total heat and heat capacity, summed over their modular items and kept between calls.
+ * <p>
+ * Like EnergyPool, it remembers what was in each slot and only rescans the inventory and recomputes the capacity
+ * when one of them is swapped or a module change could have moved an item's maximum. Heating and cooling through the
+ * pool adjusts the running total directly; the total is also re-read from the items once per tick, in case someone
+ * set an item's heat without going through it.
+ */
+public class HeatPool {
+    protected final EntityPlayer player;
+    protected ItemStack[] slotStacks = new ItemStack[0];
+    protected int modificationCount = -1;
+    protected long summedAt = Long.MIN_VALUE;
+    protected List<ItemStack> items = Collections.emptyList();
+    protected double heat;
+    protected double maxHeat;
+
+    public HeatPool(EntityPlayer player) {
+        this.player = player;
+    }
+
+    /**
+     * Makes sure the pool matches the player's inventory, rebuilding or re-summing it if not.
+     */
+    public void validate() {
+        int size = player.inventory.getSizeInventory();
+        boolean changed = slotStacks.length != size || modificationCount != ModuleManager.getModificationCount();
+        for (int i = 0; !changed && i < size; i++) {
+            changed = player.inventory.getStackInSlot(i) != slotStacks[i];
+        }
+        if (changed) {
+            rebuild();
+        } else if (summedAt != player.worldObj.getTotalWorldTime()) {
+            resum();
+        }
+    }
+
+    protected void rebuild() {
+        int size = player.inventory.getSizeInventory();
+        ItemStack[] stacks = new ItemStack[size];
+        List<ItemStack> found = new ArrayList<ItemStack>();
+        double max = Config.baseMaxHeat();
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = player.inventory.getStackInSlot(i);
+            stacks[i] = stack;
+            if (stack != null && stack.getItem() instanceof IModularItem) {
+                found.add(stack);
+                max += MuseHeatUtils.getMaxHeat(stack);
+            }
+        }
+        slotStacks = stacks;
+        items = Collections.unmodifiableList(found);
+        modificationCount = ModuleManager.getModificationCount();
+        maxHeat = max;
+        resum();
+    }
+
+    protected void resum() {
+        double sum = 0;
+        for (ItemStack stack : items) {
+            sum += MuseHeatUtils.getItemHeat(stack);
+        }
+        heat = sum;
+        summedAt = player.worldObj.getTotalWorldTime();
+    }
+
+    /**
+     * @return every modular item in the player's inventory, in slot order
+     */
+    public List<ItemStack> getItems() {
+        validate();
+        return items;
+    }
+
+    public double getHeat() {
+        validate();
+        return heat;
+    }
+
+    public double getMaxHeat() {
+        validate();
+        return maxHeat;
+    }
+
+    /**
+     * @return how much heat was actually added
+     */
+    public double heat(double degrees) {
+        validate();
+        double added = MuseHeatUtils.heatPlayer(player, items, degrees);
+        heat += added;
+        return added;
+    }
+
+    /**
+     * @return how much heat was actually removed
+     */
+    public double cool(double degrees) {
+        validate();
+        double removed = MuseHeatUtils.coolPlayer(player, items, degrees);
+        heat -= removed;
+        return removed;
+    }
+}
@@ -2,6 +2,7 @@ package net.machinemuse.utils;
 
 import net.machinemuse.api.IPowerModule;
 import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.api.electricity.ElectricAdapter;
 import net.machinemuse.powersuits.common.Config;
 import net.machinemuse.powersuits.item.ItemPowerFist;
@@ -19,7 +20,11 @@ public abstract class MuseCommonStrings {
     public static final String ARMOR_VALUE_PHYSICAL = "Armor (Physical)";
     public static final String ARMOR_VALUE_ENERGY = "Armor (Energy)";
     public static final String ARMOR_ENERGY_CONSUMPTION = "Energy Per Damage";
+    public static final PropertyKey[] ARMOR_KEYS = {
+            PropertyKey.get(ARMOR_VALUE_PHYSICAL), PropertyKey.get(ARMOR_VALUE_ENERGY), PropertyKey.get(ARMOR_ENERGY_CONSUMPTION)};
+    public static final ThreadLocal<double[]> ARMOR_SCRATCH = ModuleManager.propertyScratch(ARMOR_KEYS.length);
     public static final String WEIGHT = "Weight";
+    public static final PropertyKey WEIGHT_KEY = PropertyKey.get(WEIGHT);
 
     /**
      * Module names
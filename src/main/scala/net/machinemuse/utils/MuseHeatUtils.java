@@ -1,80 +1,139 @@
 package net.machinemuse.utils;
 
+import com.google.common.collect.MapMaker;
 import net.machinemuse.api.ModuleManager;
+import net.machinemuse.api.PropertyKey;
 import net.machinemuse.powersuits.common.Config;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.DamageSource;
 
 import java.util.List;
+import java.util.Map;
 
 public class MuseHeatUtils {
 
     public static final String MAXIMUM_HEAT = "Maximum Heat";
     public static final String CURRENT_HEAT = "Current Heat";
+    public static final PropertyKey MAXIMUM_HEAT_KEY = PropertyKey.get(MAXIMUM_HEAT);
+
+    /**
+     * Cached heat totals, one per player object. Weak keys, so logged-out players' pools go with them.
+     */
+    protected static final Map<EntityPlayer, HeatPool> heatPools = new MapMaker().weakKeys().makeMap();
+
+    public static HeatPool getHeatPool(EntityPlayer player) {
+        HeatPool pool = heatPools.get(player);
+        if (pool == null) {
+            pool = new HeatPool(player);
+            heatPools.put(player, pool);
+        }
+        return pool;
+    }
 
     public static double getPlayerHeat(EntityPlayer player) {
-        double avail = 0;
-        for (ItemStack stack : MuseItemUtils.getModularItemsInInventory(player)) {
-            avail += getItemHeat(stack);
-        }
-        return avail;
+        return getHeatPool(player).getHeat();
     }
 
     public static double getMaxHeat(EntityPlayer player) {
-        double avail = 0;
-        for (ItemStack stack : MuseItemUtils.getModularItemsInInventory(player)) {
-            avail += getMaxHeat(stack);
-        }
-        return avail + Config.baseMaxHeat();
+        return getHeatPool(player).getMaxHeat();
     }
 
     public static double getMaxHeat(ItemStack stack) {
-        return ModuleManager.computeModularProperty(stack, MAXIMUM_HEAT);
+        return ModuleManager.computeModularProperty(stack, MAXIMUM_HEAT_KEY);
     }
 
     public static void coolPlayer(EntityPlayer player, double coolDegrees) {
-        List<ItemStack> items = MuseItemUtils.getModularItemsInInventory(player);
-        if (player.isUsingItem()) {
-            items.remove(player.getCurrentEquippedItem());
+        getHeatPool(player).cool(coolDegrees);
+    }
+
+    /**
+     * Cools the given modular items, skipping the one the player is using. Each item loses a share of the cooling in
+     * proportion to how hot it is, so they all reach zero together.
+     *
+     * @param items the player's modular items; not modified
+     * @return how much heat was actually removed
+     */
+    public static double coolPlayer(EntityPlayer player, List<ItemStack> items, double coolDegrees) {
+        if (coolDegrees <= 0) {
+            return 0;
         }
-        for (ItemStack stack : items) {
-            double currHeat = getItemHeat(stack);
-            if (coolDegrees > 0) {
-                if (currHeat > coolDegrees) {
-                    setItemHeat(stack, currHeat - coolDegrees);
-                    return;
-                } else {
-                    coolDegrees -= currHeat;
-                    setItemHeat(stack, 0);
-                }
-            } else {
-                return;
+        ItemStack inUse = player.isUsingItem() ? player.getCurrentEquippedItem() : null;
+        int count = items.size();
+        double[] heats = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            ItemStack stack = items.get(i);
+            if (stack != inUse) {
+                heats[i] = Math.max(getItemHeat(stack), 0);
+                total += heats[i];
             }
-
         }
+        if (total <= 0) {
+            return 0;
+        }
+        double fraction = Math.min(coolDegrees / total, 1);
+        for (int i = 0; i < count; i++) {
+            if (heats[i] > 0) {
+                setItemHeat(items.get(i), fraction >= 1 ? 0 : heats[i] * (1 - fraction));
+            }
+        }
+        return total * fraction;
     }
 
     public static void heatPlayer(EntityPlayer player, double heatDegrees) {
-        List<ItemStack> items = MuseItemUtils.getModularItemsInInventory(player);
-        if (player.isUsingItem()) {
-            items.remove(player.getCurrentEquippedItem());
+        getHeatPool(player).heat(heatDegrees);
+    }
+
+    /**
+     * Heats the given modular items, skipping the one the player is using. Each item takes a share in proportion to
+     * the room it has left below its maximum, so they all fill up together; anything beyond that is spread in
+     * proportion to their maximums.
+     *
+     * @param items the player's modular items; not modified
+     * @return how much heat was actually added
+     */
+    public static double heatPlayer(EntityPlayer player, List<ItemStack> items, double heatDegrees) {
+        if (heatDegrees <= 0) {
+            return 0;
         }
-        for (ItemStack stack : items) {
-            double currHeat = getItemHeat(stack);
-            double maxHeat = getMaxHeat(stack);
-            if (currHeat + heatDegrees < maxHeat) {
-                setItemHeat(stack, currHeat + heatDegrees);
-                return;
-            } else {
-                heatDegrees -= (maxHeat - currHeat);
-                setItemHeat(stack, maxHeat);
+        ItemStack inUse = player.isUsingItem() ? player.getCurrentEquippedItem() : null;
+        int count = items.size();
+        double[] heats = new double[count];
+        double[] maxHeats = new double[count];
+        boolean[] skip = new boolean[count];
+        int heated = 0;
+        double totalRoom = 0;
+        double totalMax = 0;
+        for (int i = 0; i < count; i++) {
+            ItemStack stack = items.get(i);
+            if (stack == inUse) {
+                skip[i] = true;
+                continue;
             }
+            heats[i] = getItemHeat(stack);
+            maxHeats[i] = getMaxHeat(stack);
+            totalRoom += Math.max(maxHeats[i] - heats[i], 0);
+            totalMax += maxHeats[i];
+            heated++;
         }
-        double heatPerStack = heatDegrees / items.size();
-        for (ItemStack stack : items) {
-            heatItem(stack, heatPerStack);
+        if (heated == 0) {
+            return 0;
+        }
+        double fill = totalRoom > 0 ? Math.min(heatDegrees / totalRoom, 1) : 0;
+        double overflow = heatDegrees - totalRoom * fill;
+        for (int i = 0; i < count; i++) {
+            if (!skip[i]) {
+                double share = Math.max(maxHeats[i] - heats[i], 0) * fill;
+                if (overflow > 0) {
+                    share += totalMax > 0 ? overflow * maxHeats[i] / totalMax : overflow / heated;
+                }
+                if (share > 0) {
+                    setItemHeat(items.get(i), heats[i] + share);
+                }
+            }
         }
+        return heatDegrees;
     }
 
     public static double getItemHeat(ItemStack stack) {
@@ -177,7 +177,7 @@ public class MusePlayerUtils {
     }
 
     public static double thrust(EntityPlayer player, double thrust, boolean flightControl) {
-        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player.getCommandSenderName());
+        PlayerInputMap movementInput = PlayerInputMap.getInputMapFor(player);
         boolean jumpkey = movementInput.jumpKey;
         float forwardkey = movementInput.forwardKey;
         float strafekey = movementInput.strafeKey;
@@ -317,6 +317,17 @@ public class MusePlayerUtils {
         return player;
     }
 
+    /**
+     * How many ticks a cached ambient cooling value is used for before the biome, time of day and weather are
+     * looked at again
+     */
+    public static final int AMBIENT_COOLING_REFRESH_TICKS = 20;
+    /**
+     * Ambient cooling by dimension, chunk column and 16-block height band, direct-mapped on a hash of those. Entries
+     * are immutable and replaced whole, so the client and server threads can share it.
+     */
+    protected static final AmbientCooling[] ambientCoolingCache = new AmbientCooling[256];
+
     public static double getPlayerCoolingBasedOnMaterial(EntityPlayer player) {
         double cool = 0;
         if (player.isInWater()) {
@@ -324,19 +335,70 @@ public class MusePlayerUtils {
         } else if (player.isInsideOfMaterial(Material.lava)) {
             return 0;
         }
-        cool += ((2.0 - getBiome(player).getFloatTemperature((int)player.posX, (int)player.posY, (int)player.posZ))/2); // Algorithm that returns a value from 0.0 -> 1.0. Biome temperature is from 0.0 -> 2.0
+        cool += getAmbientCooling(player.worldObj, (int) player.posX, (int) player.posY, (int) player.posZ);
         if ((int)player.posY > 128) { // If high in the air, increase cooling
             cool += 0.5;
         }
-        if (!player.worldObj.isDaytime() && "Desert".equals(getBiome(player).biomeName)) { // If nighttime and in the desert, increase cooling
+        return cool;
+    }
+
+    /**
+     * The part of environmental cooling that comes from the biome, time of day and weather. It only changes from
+     * chunk to chunk and over many ticks, so it's cached and recomputed at most once a second per area.
+     */
+    public static double getAmbientCooling(World world, int x, int y, int z) {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        int band = y >> 4;
+        int dimension = world.provider.dimensionId;
+        long now = world.getTotalWorldTime();
+        int slot = (((dimension * 31 + chunkX) * 31 + chunkZ) * 31 + band) & (ambientCoolingCache.length - 1);
+        AmbientCooling cached = ambientCoolingCache[slot];
+        if (cached != null && cached.isFor(world.isRemote, dimension, chunkX, chunkZ, band)
+                && now >= cached.computedAt && now - cached.computedAt < AMBIENT_COOLING_REFRESH_TICKS) {
+            return cached.cooling;
+        }
+        // Sampled at the middle of the area so every player in it gets the same value
+        int sampleX = (chunkX << 4) + 8;
+        int sampleY = (band << 4) + 8;
+        int sampleZ = (chunkZ << 4) + 8;
+        BiomeGenBase biome = world.getBiomeGenForCoords(sampleX, sampleZ);
+        double cool = (2.0 - biome.getFloatTemperature(sampleX, sampleY, sampleZ)) / 2; // Algorithm that returns a value from 0.0 -> 1.0. Biome temperature is from 0.0 -> 2.0
+        if (!world.isDaytime() && "Desert".equals(biome.biomeName)) { // If nighttime and in the desert, increase cooling
             cool += 0.8;
         }
-        if (player.worldObj.isRaining()) {
+        if (world.isRaining()) {
             cool += 0.2;
         }
+        ambientCoolingCache[slot] = new AmbientCooling(world.isRemote, dimension, chunkX, chunkZ, band, now, cool);
         return cool;
     }
 
+    protected static final class AmbientCooling {
+        final boolean remote;
+        final int dimension;
+        final int chunkX;
+        final int chunkZ;
+        final int band;
+        final long computedAt;
+        final double cooling;
+
+        AmbientCooling(boolean remote, int dimension, int chunkX, int chunkZ, int band, long computedAt, double cooling) {
+            this.remote = remote;
+            this.dimension = dimension;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.band = band;
+            this.computedAt = computedAt;
+            this.cooling = cooling;
+        }
+
+        boolean isFor(boolean remote, int dimension, int chunkX, int chunkZ, int band) {
+            return this.remote == remote && this.dimension == dimension && this.chunkX == chunkX && this.chunkZ == chunkZ
+                    && this.band == band;
+        }
+    }
+
     public static BiomeGenBase getBiome(EntityPlayer player) {
         Chunk chunk = player.worldObj.getChunkFromBlockCoords((int) player.posX, (int) player.posZ);
         return chunk.getBiomeGenForWorldCoords((int) player.posX & 15, (int) player.posZ & 15, player.worldObj.getWorldChunkManager());